@@ -0,0 +1,93 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.admission.ConcurrencyLimiter;
+import ru.practicum.shareit.admission.RateLimit;
+import ru.practicum.shareit.admission.RateLimiter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Стоимость допуска запроса в шлюзе при непревышенных лимитах: построение маршрута, корзины клиента
+ * и маршрута (один клиент на все потоки - спор за одни CAS, клиент на поток - без спора) и общий лимит.
+ * Запуск: java -jar benchmarks/gateway/target/benchmarks.jar AdmissionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdmissionBenchmark {
+
+    private static final String METHOD = "GET";
+    private static final String PATH = "/items/42/availability";
+    private static final String IP = "127.0.0.1";
+    private static final RateLimit UNLIMITED = new RateLimit(1e9, Integer.MAX_VALUE);
+
+    private RateLimiter rateLimiter;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private final AtomicInteger clients = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Client {
+        private String id;
+        private String ip;
+
+        @Setup
+        public void setUp(AdmissionBenchmark benchmark) {
+            int number = benchmark.clients.incrementAndGet();
+            id = Integer.toString(number);
+            ip = "10.0.0." + number;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(UNLIMITED, UNLIMITED, UNLIMITED, Map.of());
+        concurrencyLimiter = new ConcurrencyLimiter(Integer.MAX_VALUE / 2, 0, Duration.ZERO);
+    }
+
+    @Benchmark
+    public String route() {
+        return RateLimiter.route(METHOD, PATH);
+    }
+
+    @Benchmark
+    public long rateLimitSameClient() {
+        return rateLimiter.tryAcquire("1", IP, RateLimiter.route(METHOD, PATH));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long rateLimitSameClientContended() {
+        return rateLimiter.tryAcquire("1", IP, RateLimiter.route(METHOD, PATH));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long rateLimitClientPerThread(Client client) {
+        return rateLimiter.tryAcquire(client.id, client.ip, RateLimiter.route(METHOD, PATH));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean concurrencyLimit() throws InterruptedException {
+        boolean acquired = concurrencyLimiter.acquire();
+        if (acquired) concurrencyLimiter.release();
+        return acquired;
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает путь ответа шлюза в режиме passthrough (байты сервера без разбора) и в режиме
+ * разбора JSON в Object. Вместо сервера ShareIt отвечает заглушка с заранее подготовленным телом,
+ * поэтому разница между режимами приходится только на шлюз.
+ * Запуск: java -jar benchmarks/gateway/target/benchmarks.jar GatewayPassthroughBenchmark -prof gc
+ * (gc.alloc.rate.norm - байт на запрос, p0.99 - 99-й перцентиль задержки).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class GatewayPassthroughBenchmark {
+
+    @Param({"true", "false"})
+    private boolean passthrough;
+
+    @Param({"1", "50"})
+    private int items;
+
+    private ExecutorService stubExecutor;
+    private HttpServer stubServer;
+    private ConfigurableApplicationContext gateway;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] body = itemsJson(items).getBytes(StandardCharsets.UTF_8);
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubExecutor = Executors.newFixedThreadPool(4);
+        stubServer.setExecutor(stubExecutor);
+        stubServer.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stubServer.start();
+
+        gateway = new SpringApplicationBuilder(ShareItGateway.class).run(
+                "--server.port=0",
+                "--shareit-server.url=http://localhost:" + stubServer.getAddress().getPort(),
+                "--shareit-server.passthrough=" + passthrough,
+                "--logging.level.root=WARN");
+        String port = gateway.getEnvironment().getProperty("local.server.port");
+
+        client = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items?from=0&size=" + items))
+                .header("X-Sharer-User-Id", "1")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        gateway.close();
+        stubServer.stop(0);
+        stubExecutor.shutdown();
+    }
+
+    @Benchmark
+    public byte[] getItems() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Шлюз вернул " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static String itemsJson(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) json.append(',');
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Дрель ").append(i).append('"')
+                    .append(",\"description\":\"Аккумуляторная дрель с набором сверл\"")
+                    .append(",\"available\":true,\"requestId\":0")
+                    .append(",\"comments\":[{\"id\":").append(i)
+                    .append(",\"text\":\"Отличная дрель\",\"authorName\":\"user\",\"created\":\"2024-01-01T10:00:00\"}]")
+                    .append(",\"lastBooking\":{\"id\":").append(i).append(",\"bookerId\":2}")
+                    .append(",\"nextBooking\":null}");
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.Mapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовые данные для бенчмарков: сущности с заполненными связями, как после загрузки из БД.
+ */
+final class Fixtures {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("user " + id)
+                .email("user" + id + "@email.ru")
+                .build();
+    }
+
+    static Item item(long id) {
+        return Item.builder()
+                .id(id)
+                .name("Дрель " + id)
+                .description("Аккумуляторная дрель с набором сверл")
+                .owner(user(1))
+                .available(true)
+                .itemRequest(ItemRequest.builder()
+                        .id(id)
+                        .description("Нужна дрель")
+                        .requester(user(2))
+                        .creation(TIMESTAMP)
+                        .build())
+                .build();
+    }
+
+    static Booking booking(long id) {
+        return Booking.builder()
+                .id(id)
+                .start(TIMESTAMP.plusDays(id))
+                .end(TIMESTAMP.plusDays(id + 1))
+                .item(item(id))
+                .booker(user(2))
+                .state(BookingStatus.APPROVED)
+                .build();
+    }
+
+    static Comment comment(long id) {
+        return Comment.builder()
+                .id(id)
+                .text("Отличная дрель")
+                .item(item(id))
+                .author(user(2))
+                .created(TIMESTAMP)
+                .build();
+    }
+
+    static List<Booking> bookings(int count) {
+        List<Booking> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add(booking(i));
+        }
+        return result;
+    }
+
+    static List<BookingDto> bookingDtos(int count) {
+        List<BookingDto> result = new ArrayList<>(count);
+        for (Booking booking : bookings(count)) {
+            result.add(Mapper.toDto(booking));
+        }
+        return result;
+    }
+
+    static List<ItemDto> itemDtos(int count) {
+        List<ItemDto> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ItemDto itemDto = Mapper.toDto(item(i));
+            itemDto.setComments(List.of(Mapper.toDto(comment(i))));
+            itemDto.setLastBooking(Mapper.toShortDto(booking(i)));
+            itemDto.setNextBooking(Mapper.toShortDto(booking(i + 1)));
+            result.add(itemDto);
+        }
+        return result;
+    }
+}
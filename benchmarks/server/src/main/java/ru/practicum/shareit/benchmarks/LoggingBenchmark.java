@@ -0,0 +1,209 @@
+package ru.practicum.shareit.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.logging.RequestLogSamplingFilter;
+import ru.practicum.shareit.util.Mapper;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Пропускная способность запроса GET /items/{itemId} через MockMvc (DispatcherServlet, настоящий
+ * ItemController, сериализация ответа) при записи лога контроллера и сервиса в файл синхронно,
+ * через очередь AsyncAppender и через очередь с выборкой логов запросов (1 из 10), как в logback-spring.xml.
+ * Сервис - заглушка без БД, поэтому разница между режимами - цена логирования в запросе. Если файл
+ * не успевает за потоками, асинхронные варианты отбрасывают события INFO по discardingThreshold - это и есть
+ * политика сброса, поэтому их результат показывает задержку потока запроса, а не объем записанного лога.
+ * Запуск: java -jar benchmarks/server/target/benchmarks.jar LoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async", "async-sampled"})
+    private String mode;
+
+    private LoggerContext context;
+    private Path file;
+    private MockMvc mvc;
+
+    /**
+     * Номер вещи у каждого потока свой: общий счетчик сам стал бы точкой конкуренции потоков.
+     */
+    @State(Scope.Thread)
+    public static class Request {
+        private long itemId;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // контроллер пишет в статический логгер, поэтому настраивается общий контекст logback
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        file = Files.createTempFile("shareit-logging", ".log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p %t --- %logger{39} : %m%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (!mode.equals("sync")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(fileAppender);
+            async.start();
+            appender = async;
+        }
+        if (mode.equals("async-sampled")) {
+            RequestLogSamplingFilter filter = new RequestLogSamplingFilter();
+            filter.setContext(context);
+            filter.setRate(10);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+
+        mvc = MockMvcBuilders.standaloneSetup(new ItemController(new StubItemService())).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.reset();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int request(Request request) throws Exception {
+        return mvc.perform(get("/items/{itemId}", request.itemId++)
+                        .header("X-Sharer-User-Id", 1))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+    }
+
+    /**
+     * Сервис без БД: отдает готовую вещь и пишет отладочный лог, как ItemServiceImpl.
+     */
+    private static class StubItemService implements ItemService {
+
+        private static final org.slf4j.Logger log = LoggerFactory.getLogger("ru.practicum.shareit.item.service.ItemServiceImpl");
+
+        private final ItemDto item = Mapper.toDto(Fixtures.item(1));
+
+        @Override
+        public ItemDto getById(long itemId, long userId) {
+            log.debug("Отправлен ItemDto id = {}", itemId);
+            return item;
+        }
+
+        @Override
+        public List<ItemDto> getAll(long userId, int from, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ItemDto> getAll(long userId, PageCursor after, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ItemDto> searchByText(String text, int from, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ItemDto> searchAvailable(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ItemDto add(ItemDto itemDto, long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ItemDto> addAll(List<ItemDto> itemDtos, long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CommentDto addComment(long itemId, long userId, CommentDto commentDto) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ItemDto update(ItemDto itemDto, long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteById(long itemId, long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteAll() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.Mapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Стоимость преобразований Mapper, через которые проходит каждый ответ сервера:
+ * toDto(Booking) строит вложенные ItemDto и UserDto через билдеры Lombok.
+ * Запуск: java -jar benchmarks/server/target/benchmarks.jar MapperBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private User user;
+    private Item item;
+    private Comment comment;
+    private Booking booking;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(1);
+        item = Fixtures.item(1);
+        comment = Fixtures.comment(1);
+        booking = Fixtures.booking(1);
+        bookings = Fixtures.bookings(PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return Mapper.toDto(user);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return Mapper.toDto(item);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return Mapper.toDto(comment);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return Mapper.toDto(booking);
+    }
+
+    @Benchmark
+    public BookingDtoShort bookingToShortDto() {
+        return Mapper.toShortDto(booking);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingPageToDto() {
+        return bookings.stream()
+                .map(Mapper::toDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.util.PaginationAndSortParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Построение Pageable для запросов списков: без сортировки, по одному и по двум полям.
+ * Запуск: java -jar benchmarks/server/target/benchmarks.jar PaginationAndSortParamsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationAndSortParamsBenchmark {
+
+    private int from = 40;
+    private int size = 20;
+
+    @Benchmark
+    public Pageable unsorted() {
+        return PaginationAndSortParams.getPageable(from, size);
+    }
+
+    @Benchmark
+    public Pageable sortedAsc() {
+        return PaginationAndSortParams.getPageableAsc(from, size, "id");
+    }
+
+    @Benchmark
+    public Pageable sortedDesc() {
+        return PaginationAndSortParams.getPageableDesc(from, size, "start");
+    }
+
+    @Benchmark
+    public Pageable sortedDescByTwoFields() {
+        return PaginationAndSortParams.getPageableDesc(from, size, "creation", "id");
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Выборочная запись логов входящих запросов: из событий уровня INFO и ниже, пришедших от логгеров
+ * с именем, оканчивающимся на loggerSuffix (контроллеры), записывается в среднем одно из rate.
+ * Решение принимается до форматирования сообщения и постановки в очередь, WARN и ERROR не отбрасываются.
+ * Настраивается в logback-spring.xml, rate = 1 отключает выборку.
+ */
+public class RequestLogSamplingFilter extends TurboFilter {
+
+    private String loggerSuffix = "Controller";
+    private int rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null - проверка isXxxEnabled(), на нее выборка не влияет
+        if (rate <= 1 || format == null || level.isGreaterOrEqual(Level.WARN)) return FilterReply.NEUTRAL;
+        if (!logger.getName().endsWith(loggerSuffix)) return FilterReply.NEUTRAL;
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerSuffix(String loggerSuffix) {
+        this.loggerSuffix = loggerSuffix;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+import lombok.Value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Спан в виде, пригодном для JSON: идентификаторы, имя, время начала и длительность, атрибуты.
+ */
+@Value
+public class SpanRecord {
+
+    String traceId;
+    String spanId;
+    String parentSpanId;
+    String name;
+    String kind;
+    long startEpochMicros;
+    long durationMicros;
+    String status;
+    Map<String, Object> attributes;
+
+    public static SpanRecord of(SpanData span) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        return new SpanRecord(span.getTraceId(),
+                span.getSpanId(),
+                span.getParentSpanContext().isValid() ? span.getParentSpanId() : null,
+                span.getName(),
+                span.getKind().name(),
+                span.getStartEpochNanos() / 1000,
+                (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000,
+                span.getStatus().getStatusCode().name(),
+                attributes);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * /actuator/traces: самые долгие входящие запросы по каждому маршруту среди спанов в памяти.
+ * По traceId выброса его спаны (сервисы, SQL) ищутся в том же экспортере или в файле.
+ */
+@Component
+@Endpoint(id = "traces")
+@ConditionalOnProperty(name = "shareit.tracing.exporter", havingValue = "memory")
+public class TracesEndpoint {
+
+    private static final int SLOWEST = 5;
+
+    private final InMemorySpanExporter exporter;
+
+    public TracesEndpoint(InMemorySpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @ReadOperation
+    public Map<String, List<SpanRecord>> slowest() {
+        return exporter.getSpans().stream()
+                .filter(span -> span.getKind() == SpanKind.SERVER)
+                .collect(Collectors.groupingBy(SpanData::getName, TreeMap::new, Collectors.collectingAndThen(
+                        Collectors.toList(),
+                        spans -> spans.stream()
+                                .sorted(Comparator.comparingLong(TracesEndpoint::duration).reversed())
+                                .limit(SLOWEST)
+                                .map(SpanRecord::of)
+                                .collect(Collectors.toList()))));
+    }
+
+    private static long duration(SpanData span) {
+        return span.getEndEpochNanos() - span.getStartEpochNanos();
+    }
+}
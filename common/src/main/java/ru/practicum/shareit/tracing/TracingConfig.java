@@ -0,0 +1,70 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Трассировка запросов шлюз - сервер - база данных (OpenTelemetry, заголовок W3C traceparent), общая часть
+ * шлюза и сервера: провайдер спанов, спан SERVER на входящий запрос и экспортеры.
+ * shareit.tracing.exporter: none - контекст трассы только передается дальше, спаны не создаются;
+ * memory - последние спаны в памяти (/actuator/traces); file - спаны в файл JSON Lines.
+ */
+@Configuration
+public class TracingConfig {
+
+    public static final String INSTRUMENTATION = "ru.practicum.shareit";
+    public static final String ENABLED = "'${shareit.tracing.exporter}' != 'none'";
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression(ENABLED)
+    public SdkTracerProvider tracerProvider(SpanExporter exporter,
+                                            @Value("${shareit.tracing.service-name}") String serviceName,
+                                            @Value("${shareit.tracing.sampler-ratio}") double samplerRatio) {
+        return SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(Resource.create(
+                        Attributes.of(AttributeKey.stringKey("service.name"), serviceName))))
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(samplerRatio)))
+                .addSpanProcessor(BatchSpanProcessor.builder(exporter).build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "")
+    public OpenTelemetry openTelemetry(ObjectProvider<SdkTracerProvider> tracerProvider) {
+        ContextPropagators propagators = ContextPropagators.create(W3CTraceContextPropagator.getInstance());
+        SdkTracerProvider provider = tracerProvider.getIfAvailable();
+        if (provider == null) return OpenTelemetry.propagating(propagators);
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(provider)
+                .setPropagators(propagators)
+                .build();
+    }
+
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer(INSTRUMENTATION);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(OpenTelemetry openTelemetry) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(openTelemetry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RequestLogSamplingFilterTest {
+
+    private static final int EVENTS = 10_000;
+
+    private final LoggerContext context = new LoggerContext();
+    private final RequestLogSamplingFilter filter = new RequestLogSamplingFilter();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Logger controller = context.getLogger("ru.practicum.shareit.item.controller.ItemController");
+    private final Logger service = context.getLogger("ru.practicum.shareit.item.service.ItemServiceImpl");
+
+    @BeforeEach
+    public void setUp() {
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(appender);
+    }
+
+    @Test
+    public void shouldWriteAllRequestLogsByDefault() {
+        log(controller, Level.INFO);
+
+        Assertions.assertEquals(EVENTS, appender.list.size());
+    }
+
+    @Test
+    public void shouldSampleControllerInfoLogs() {
+        filter.setRate(10);
+
+        log(controller, Level.INFO);
+
+        Assertions.assertTrue(appender.list.size() > EVENTS / 10 / 2, "записано " + appender.list.size());
+        Assertions.assertTrue(appender.list.size() < EVENTS / 10 * 2, "записано " + appender.list.size());
+    }
+
+    @Test
+    public void shouldNotSampleWarningsAndOtherLoggers() {
+        filter.setRate(10);
+
+        log(controller, Level.WARN);
+        log(service, Level.DEBUG);
+
+        Assertions.assertEquals(EVENTS * 2, appender.list.size());
+    }
+
+    @Test
+    public void shouldNotAffectLevelChecks() {
+        filter.setRate(Integer.MAX_VALUE);
+
+        for (int i = 0; i < EVENTS; i++) {
+            Assertions.assertTrue(controller.isInfoEnabled());
+        }
+    }
+
+    private void log(Logger logger, Level level) {
+        for (int i = 0; i < EVENTS; i++) {
+            if (level == Level.WARN) {
+                logger.warn("Получен запрос GET /items/{}", i);
+            } else if (level == Level.INFO) {
+                logger.info("Получен запрос GET /items/{}", i);
+            } else logger.debug("Отправлен ItemDto id = {}", i);
+        }
+    }
+}
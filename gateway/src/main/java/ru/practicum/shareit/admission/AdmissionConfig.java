@@ -0,0 +1,94 @@
+package ru.practicum.shareit.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Допуск запросов к шлюзу: лимиты частоты по клиентам и маршрутам и общий лимит одновременных запросов.
+ * Фильтр стоит сразу после трассировки, поэтому отклоненные запросы тоже попадают в трассы и метрики.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(@Value("${shareit.admission.user}") String userLimit,
+                                   @Value("${shareit.admission.endpoint}") String endpointLimit,
+                                   @Value("${shareit.admission.ip}") String ipLimit,
+                                   @Value("${shareit.admission.endpoint-overrides}") List<String> endpointOverrides) {
+        Map<String, RateLimit> overrides = new HashMap<>();
+        for (String override : endpointOverrides) {
+            if (override.isBlank()) continue;
+            int separator = override.lastIndexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("Лимит маршрута должен иметь вид маршрут=rate/burst: " + override);
+            String[] route = override.substring(0, separator).trim().split(" ", 2);
+            overrides.put(RateLimiter.route(route[0], route.length > 1 ? route[1].trim() : ""),
+                    RateLimit.parse(override.substring(separator + 1)));
+        }
+        return new RateLimiter(RateLimit.parse(userLimit), RateLimit.parse(endpointLimit), RateLimit.parse(ipLimit),
+                overrides);
+    }
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter(@Value("${shareit.admission.max-concurrent}") int maxConcurrent,
+                                                 @Value("${shareit.admission.max-queue}") int maxQueue,
+                                                 @Value("${shareit.admission.queue-timeout}") Duration queueTimeout) {
+        return new ConcurrencyLimiter(maxConcurrent, maxQueue, queueTimeout);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            RateLimiter rateLimiter,
+            ConcurrencyLimiter concurrencyLimiter,
+            @Value("${shareit.admission.exempt-paths}") List<String> exemptPaths,
+            @Value("${shareit.admission.queue-timeout}") Duration queueTimeout,
+            ObjectMapper objectMapper) {
+        long retryAfter = (queueTimeout.toMillis() + 999) / 1000;
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(rateLimiter, concurrencyLimiter, new HashSet<>(exemptPaths), retryAfter, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder admissionMetrics(RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter) {
+        return registry -> {
+            FunctionCounter.builder("shareit.gateway.admission.rejected", rateLimiter, RateLimiter::getUserRejections)
+                    .description("Запросы, отклоненные лимитами шлюза")
+                    .tag("reason", "user")
+                    .register(registry);
+            FunctionCounter.builder("shareit.gateway.admission.rejected", rateLimiter, RateLimiter::getEndpointRejections)
+                    .description("Запросы, отклоненные лимитами шлюза")
+                    .tag("reason", "endpoint")
+                    .register(registry);
+            FunctionCounter.builder("shareit.gateway.admission.rejected", rateLimiter, RateLimiter::getIpRejections)
+                    .description("Запросы, отклоненные лимитами шлюза")
+                    .tag("reason", "ip")
+                    .register(registry);
+            FunctionCounter.builder("shareit.gateway.admission.rejected", concurrencyLimiter, ConcurrencyLimiter::getRejections)
+                    .description("Запросы, отклоненные лимитами шлюза")
+                    .tag("reason", "concurrency")
+                    .register(registry);
+            Gauge.builder("shareit.gateway.admission.in-flight", concurrencyLimiter, ConcurrencyLimiter::getInFlight)
+                    .description("Запросы, обрабатываемые шлюзом в пределах общего лимита")
+                    .register(registry);
+            Gauge.builder("shareit.gateway.admission.queued", concurrencyLimiter, ConcurrencyLimiter::getQueued)
+                    .description("Запросы, ожидающие в очереди общего лимита")
+                    .register(registry);
+        };
+    }
+}
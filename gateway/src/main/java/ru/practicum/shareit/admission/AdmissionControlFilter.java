@@ -0,0 +1,146 @@
+package ru.practicum.shareit.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Допуск запросов к шлюзу (кроме /actuator): сначала лимиты частоты клиента (429 Too Many Requests),
+ * затем общий лимит одновременных запросов (503 Service Unavailable), оба ответа с Retry-After.
+ * Клиент - X-Sharer-User-Id, без него - IP-адрес; кроме того, все запросы с одного IP-адреса ограничены
+ * его корзиной. Если общий лимит отклоняет запрос, взятые токены возвращаются клиенту. Разрешение на
+ * одновременный запрос держится до конца асинхронного ответа; долгие потоки из exemptPaths общим
+ * лимитом не учитываются.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Set<String> exemptPaths;
+    private final ObjectMapper objectMapper;
+    private final long queueRetryAfter;
+
+    public AdmissionControlFilter(RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter,
+                                  Set<String> exemptPaths, long queueRetryAfter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.exemptPaths = Set.copyOf(exemptPaths);
+        this.queueRetryAfter = queueRetryAfter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = client(request);
+        String ip = request.getRemoteAddr();
+        String route = RateLimiter.route(request.getMethod(), request.getRequestURI());
+        long wait = rateLimiter.tryAcquire(client, ip, route);
+        if (wait > 0) {
+            log.debug("Превышен лимит запросов клиента {} к {}", client, route);
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, (wait + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND,
+                    "слишком много запросов");
+            return;
+        }
+        if (exemptPaths.contains(request.getRequestURI())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!acquire()) {
+            rateLimiter.refund(client, ip, route);
+            log.debug("Очередь запросов шлюза заполнена, запрос клиента {} к {} отклонен", client, route);
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, queueRetryAfter, "шлюз перегружен");
+            return;
+        }
+        Permit permit = new Permit();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return concurrencyLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String client(HttpServletRequest request) {
+        String userId = request.getHeader(HEADER);
+        if (userId != null && !userId.isEmpty() && userId.length() <= 19 && userId.chars().allMatch(Character::isDigit)) {
+            return userId;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("admission", message));
+    }
+
+    /**
+     * Возвращает разрешение один раз: по завершении асинхронного ответа или сразу для синхронного.
+     */
+    private class Permit implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) concurrencyLimiter.release();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.admission;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/admission: настройки и состояние лимитов шлюза и клиенты, дольше всех ожидающие токена.
+ */
+@Component
+@Endpoint(id = "admission")
+@ConditionalOnProperty(name = "shareit.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionEndpoint {
+
+    private static final int THROTTLED = 20;
+
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    public AdmissionEndpoint(RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        Map<String, Object> limits = new LinkedHashMap<>();
+        limits.put("user", rateLimiter.getUserLimit().toString());
+        limits.put("endpoint", rateLimiter.getEndpointLimit().toString());
+        limits.put("ip", rateLimiter.getIpLimit().toString());
+        limits.put("endpointOverrides", rateLimiter.getEndpointOverrides());
+        limits.put("userBuckets", rateLimiter.getUserBuckets());
+        limits.put("endpointBuckets", rateLimiter.getEndpointBuckets());
+        limits.put("ipBuckets", rateLimiter.getIpBuckets());
+        limits.put("userRejections", rateLimiter.getUserRejections());
+        limits.put("endpointRejections", rateLimiter.getEndpointRejections());
+        limits.put("ipRejections", rateLimiter.getIpRejections());
+        limits.put("throttled", rateLimiter.throttled(THROTTLED));
+
+        Map<String, Object> concurrency = new LinkedHashMap<>();
+        concurrency.put("maxConcurrent", concurrencyLimiter.getMaxConcurrent());
+        concurrency.put("maxQueue", concurrencyLimiter.getMaxQueue());
+        concurrency.put("inFlight", concurrencyLimiter.getInFlight());
+        concurrency.put("queued", concurrencyLimiter.getQueued());
+        concurrency.put("rejections", concurrencyLimiter.getRejections());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rateLimits", limits);
+        result.put("concurrency", concurrency);
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.admission;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Общий лимит одновременно обрабатываемых запросов. Запрос сверх лимита ждет разрешения в очереди
+ * не дольше queueTimeout; если в очереди уже maxQueue запросов, он отклоняется сразу.
+ */
+public class ConcurrencyLimiter {
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeout;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejections = new LongAdder();
+
+    public ConcurrencyLimiter(int maxConcurrent, int maxQueue, Duration queueTimeout) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.queueTimeout = queueTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * @return true, если разрешение получено и его нужно вернуть через {@link #release()}
+     */
+    public boolean acquire() throws InterruptedException {
+        if (permits.tryAcquire()) return true;
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejections.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(queueTimeout, TimeUnit.NANOSECONDS)) return true;
+            rejections.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.admission;
+
+import lombok.Value;
+
+/**
+ * Лимит корзины токенов: rate токенов в секунду, емкость burst. Строковый вид - "rate/burst".
+ */
+@Value
+public class RateLimit {
+
+    double rate;
+    int burst;
+
+    public static RateLimit parse(String value) {
+        int slash = value.indexOf('/');
+        if (slash < 0) throw new IllegalArgumentException("Лимит должен иметь вид rate/burst: " + value);
+        RateLimit limit = new RateLimit(Double.parseDouble(value.substring(0, slash).trim()),
+                Integer.parseInt(value.substring(slash + 1).trim()));
+        if (limit.rate <= 0 || limit.burst < 1) throw new IllegalArgumentException("Некорректный лимит: " + value);
+        return limit;
+    }
+
+    public TokenBucket newBucket(long now) {
+        return new TokenBucket(rate, burst, now);
+    }
+
+    @Override
+    public String toString() {
+        return rate + "/" + burst;
+    }
+}
@@ -0,0 +1,219 @@
+package ru.practicum.shareit.admission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Лимиты частоты запросов: у каждого клиента общая корзина токенов и по корзине на каждый маршрут,
+ * у каждого IP-адреса - своя корзина-потолок на запросы всех клиентов с него, так что смена
+ * X-Sharer-User-Id не снимает ограничение. Корзины лежат в ConcurrentHashMap и берут токены через CAS,
+ * поэтому запросы разных клиентов не блокируют друг друга. Полные корзины периодически удаляются.
+ */
+@Slf4j
+public class RateLimiter {
+
+    private final RateLimit userLimit;
+    private final RateLimit endpointLimit;
+    private final RateLimit ipLimit;
+    private final Map<String, RateLimit> endpointOverrides;
+    private final Map<String, TokenBucket> users = new ConcurrentHashMap<>();
+    private final Map<EndpointKey, TokenBucket> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> ips = new ConcurrentHashMap<>();
+    private final LongAdder userRejections = new LongAdder();
+    private final LongAdder endpointRejections = new LongAdder();
+    private final LongAdder ipRejections = new LongAdder();
+
+    /**
+     * @param endpointOverrides лимиты отдельных маршрутов, ключ - результат {@link #route(String, String)}
+     */
+    public RateLimiter(RateLimit userLimit, RateLimit endpointLimit, RateLimit ipLimit,
+                       Map<String, RateLimit> endpointOverrides) {
+        this.userLimit = userLimit;
+        this.endpointLimit = endpointLimit;
+        this.ipLimit = ipLimit;
+        this.endpointOverrides = Map.copyOf(endpointOverrides);
+    }
+
+    /**
+     * Берет токены из корзины маршрута, из общей корзины клиента и из корзины IP-адреса. Если какая-то
+     * корзина пуста, токены, уже взятые из предыдущих, возвращаются.
+     *
+     * @return 0, если запрос допущен, иначе через сколько наносекунд его можно повторить
+     */
+    public long tryAcquire(String client, String ip, String route) {
+        long now = System.nanoTime();
+        EndpointKey key = new EndpointKey(client, route);
+        TokenBucket endpoint = endpoints.get(key);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(key, k -> endpointOverrides.getOrDefault(route, endpointLimit).newBucket(now));
+        }
+        long wait = endpoint.tryAcquire(now);
+        if (wait > 0) {
+            endpointRejections.increment();
+            return wait;
+        }
+        TokenBucket user = users.get(client);
+        if (user == null) user = users.computeIfAbsent(client, k -> userLimit.newBucket(now));
+        wait = user.tryAcquire(now);
+        if (wait > 0) {
+            endpoint.refund();
+            userRejections.increment();
+            return wait;
+        }
+        TokenBucket address = ips.get(ip);
+        if (address == null) address = ips.computeIfAbsent(ip, k -> ipLimit.newBucket(now));
+        wait = address.tryAcquire(now);
+        if (wait > 0) {
+            endpoint.refund();
+            user.refund();
+            ipRejections.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Возвращает токены допущенного запроса, который отклонен дальше (общим лимитом одновременных
+     * запросов): он не дошел до сервера и не должен расходовать лимиты клиента.
+     */
+    public void refund(String client, String ip, String route) {
+        refund(endpoints.get(new EndpointKey(client, route)));
+        refund(users.get(client));
+        refund(ips.get(ip));
+    }
+
+    /**
+     * Маршрут запроса для лимитов: метод и путь, числовые сегменты пути заменены на {id}.
+     */
+    public static String route(String method, String path) {
+        StringBuilder route = new StringBuilder(method.length() + path.length() + 1).append(method).append(' ');
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) end = path.length();
+            if (end > start && isNumber(path, start, end)) {
+                route.append("{id}");
+            } else {
+                route.append(path, start, end);
+            }
+            if (end < path.length()) route.append('/');
+            start = end + 1;
+        }
+        return route.toString();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.admission.sweep-interval}")
+    public void sweep() {
+        long now = System.nanoTime();
+        // запрос, успевший взять удаляемую корзину, расходует ее токен впустую: лимит на миг мягче
+        users.values().removeIf(bucket -> bucket.isFull(now));
+        endpoints.values().removeIf(bucket -> bucket.isFull(now));
+        ips.values().removeIf(bucket -> bucket.isFull(now));
+        log.debug("Корзины лимитов после очистки: клиенты {}, маршруты {}, IP-адреса {}",
+                users.size(), endpoints.size(), ips.size());
+    }
+
+    /**
+     * Клиенты с исчерпанными корзинами, дольше всех ожидающие токена.
+     */
+    public List<ThrottledClient> throttled(int limit) {
+        long now = System.nanoTime();
+        List<ThrottledClient> result = new ArrayList<>();
+        users.forEach((client, bucket) -> addThrottled(result, client, null, bucket.waitTime(now)));
+        endpoints.forEach((key, bucket) -> addThrottled(result, key.client, key.route, bucket.waitTime(now)));
+        return result.stream()
+                .sorted(Comparator.comparingLong(ThrottledClient::getRetryAfterMillis).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public RateLimit getUserLimit() {
+        return userLimit;
+    }
+
+    public RateLimit getEndpointLimit() {
+        return endpointLimit;
+    }
+
+    public RateLimit getIpLimit() {
+        return ipLimit;
+    }
+
+    public Map<String, String> getEndpointOverrides() {
+        return endpointOverrides.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toString()));
+    }
+
+    public int getUserBuckets() {
+        return users.size();
+    }
+
+    public int getEndpointBuckets() {
+        return endpoints.size();
+    }
+
+    public int getIpBuckets() {
+        return ips.size();
+    }
+
+    public long getUserRejections() {
+        return userRejections.sum();
+    }
+
+    public long getEndpointRejections() {
+        return endpointRejections.sum();
+    }
+
+    public long getIpRejections() {
+        return ipRejections.sum();
+    }
+
+    private static void refund(TokenBucket bucket) {
+        // корзину могла удалить очистка: новая и так полна
+        if (bucket != null) bucket.refund();
+    }
+
+    private static void addThrottled(List<ThrottledClient> result, String client, String route, long wait) {
+        if (wait > 0) result.add(new ThrottledClient(client, route, TimeUnit.NANOSECONDS.toMillis(wait)));
+    }
+
+    private static boolean isNumber(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(path.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static final class EndpointKey {
+        private final String client;
+        private final String route;
+        private final int hash;
+
+        EndpointKey(String client, String route) {
+            this.client = client;
+            this.route = route;
+            this.hash = 31 * client.hashCode() + route.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EndpointKey)) return false;
+            EndpointKey other = (EndpointKey) o;
+            return client.equals(other.client) && route.equals(other.route);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
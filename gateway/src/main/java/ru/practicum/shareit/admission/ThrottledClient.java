@@ -0,0 +1,13 @@
+package ru.practicum.shareit.admission;
+
+import lombok.Value;
+
+/**
+ * Клиент с исчерпанной корзиной: route == null - общая корзина клиента.
+ */
+@Value
+public class ThrottledClient {
+    String client;
+    String route;
+    long retryAfterMillis;
+}
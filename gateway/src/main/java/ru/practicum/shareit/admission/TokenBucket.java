@@ -0,0 +1,55 @@
+package ru.practicum.shareit.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок (алгоритм GCRA): все состояние - теоретическое время прихода следующего
+ * запроса в наносекундах System.nanoTime(), оно сдвигается на интервал одного токена через CAS.
+ * Корзина вмещает burst токенов и пополняется rate токенами в секунду.
+ */
+public class TokenBucket {
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong arrival;
+
+    public TokenBucket(double rate, int burst, long now) {
+        this.interval = Math.max(1, Math.round(1_000_000_000 / rate));
+        this.tolerance = interval * (burst - 1);
+        this.arrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0, если токен взят, иначе через сколько наносекунд появится следующий токен
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long start = Math.max(current, now);
+            long wait = start - now - tolerance;
+            if (wait > 0) return wait;
+            if (arrival.compareAndSet(current, start + interval)) return 0;
+        }
+    }
+
+    /**
+     * Возвращает взятый токен, если запрос все-таки не допущен.
+     */
+    public void refund() {
+        arrival.addAndGet(-interval);
+    }
+
+    /**
+     * Сколько наносекунд ждать следующего токена, 0 - токены есть.
+     */
+    public long waitTime(long now) {
+        return Math.max(0, arrival.get() - now - tolerance);
+    }
+
+    /**
+     * Корзина полна: ее можно удалить, новая корзина для того же ключа ничем не будет отличаться.
+     */
+    public boolean isFull(long now) {
+        return arrival.get() <= now;
+    }
+}
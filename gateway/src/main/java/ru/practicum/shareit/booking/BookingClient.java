@@ -2,14 +2,15 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMetrics;
 
 import java.util.Map;
 
@@ -18,32 +19,42 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.passthrough}") boolean passthrough,
+                         WebClient.Builder builder,
+                         ClientMetrics metrics) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough,
+                metrics
         );
     }
 
-    public ResponseEntity<Object> getBookingById(long bookingId, long userId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> getFeed(long userId) {
+        return getEventStream("/feed", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingById(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByBooker(long bookerId, BookingState state, int from, int size) {
-        return get("?state={state}&from={from}&size={size}", bookerId, getParameters(state, from, size));
+    public Mono<ResponseEntity<Object>> getAllBookingsByBooker(long bookerId, BookingState state, int from, int size, String after) {
+        return get(withCursor("?state={state}&from={from}&size={size}", after), bookerId,
+                withCursor(getParameters(state, from, size), after));
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwner(long ownerId, BookingState state, int from, int size) {
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, getParameters(state, from, size));
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(long ownerId, BookingState state, int from, int size, String after) {
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", after), ownerId,
+                withCursor(getParameters(state, from, size), after));
     }
 
-    public ResponseEntity<Object> add(BookingRequestDto bookingRequestDto, long bookerId) {
+    public Mono<ResponseEntity<Object>> add(BookingRequestDto bookingRequestDto, long bookerId) {
         return post("", bookerId, bookingRequestDto);
     }
 
-    public ResponseEntity<Object> setBookingApprove(long bookingId, long ownerId, boolean approved) {
+    public Mono<ResponseEntity<Object>> setBookingApprove(long bookingId, long ownerId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, ownerId);
     }
 
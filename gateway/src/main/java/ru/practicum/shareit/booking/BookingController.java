@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,6 +15,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
@@ -34,44 +37,52 @@ public class BookingController {
 		this.bookingClient = bookingClient;
 	}
 
+	@GetMapping(path = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Mono<ResponseEntity<StreamingResponseBody>> getFeed(@RequestHeader(HEADER) long userId) {
+		log.info("Получен запрос GET /bookings/feed");
+		return bookingClient.getFeed(userId);
+	}
+
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBookingById(@PathVariable long bookingId,
+	public Mono<ResponseEntity<Object>> getBookingById(@PathVariable long bookingId,
 									 @RequestHeader(HEADER) long userId) {
 		log.info("Получен запрос GET /bookings/{}", bookingId);
 		return bookingClient.getBookingById(bookingId, userId);
 	}
 
 	@GetMapping
-	public ResponseEntity<Object> getAllBookingsByBooker(@RequestParam(name = "state", defaultValue = "ALL") String stateStr,
+	public Mono<ResponseEntity<Object>> getAllBookingsByBooker(@RequestParam(name = "state", defaultValue = "ALL") String stateStr,
 												   @RequestHeader(HEADER) long bookerId,
 												   @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-												   @Positive @RequestParam(defaultValue = "20") int size) {
+												   @Positive @RequestParam(defaultValue = "20") int size,
+												   @RequestParam(required = false) String after) {
 		log.info("Получен запрос GET /bookings?state={}", stateStr);
 		BookingState state = BookingState.from(stateStr)
 				.orElseThrow(() -> new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS"));
-		return bookingClient.getAllBookingsByBooker(bookerId, state, from, size);
+		return bookingClient.getAllBookingsByBooker(bookerId, state, from, size, after);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getAllBookingsByOwner(@RequestParam(name = "state", defaultValue = "ALL") String stateStr,
+	public Mono<ResponseEntity<Object>> getAllBookingsByOwner(@RequestParam(name = "state", defaultValue = "ALL") String stateStr,
 												  @RequestHeader(HEADER) long ownerId,
 												  @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-												  @Positive @RequestParam(defaultValue = "20") int size) {
+												  @Positive @RequestParam(defaultValue = "20") int size,
+												  @RequestParam(required = false) String after) {
 		log.info("Получен запрос GET /bookings/owner?state={}", stateStr);
 		BookingState state = BookingState.from(stateStr)
 				.orElseThrow(() -> new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS"));
-		return bookingClient.getAllBookingsByOwner(ownerId, state, from, size);
+		return bookingClient.getAllBookingsByOwner(ownerId, state, from, size, after);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> addBooking(@RequestBody BookingRequestDto bookingRequestDto,
+	public Mono<ResponseEntity<Object>> addBooking(@RequestBody BookingRequestDto bookingRequestDto,
 								 @RequestHeader(HEADER) long bookerId) {
 		log.info("Получен запрос POST /bookings");
 		return bookingClient.add(bookingRequestDto, bookerId);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> bookingReview(@PathVariable long bookingId,
+	public Mono<ResponseEntity<Object>> bookingReview(@PathVariable long bookingId,
 									@RequestParam boolean approved,
 									@RequestHeader(HEADER) long ownerId) {
 		log.info("Получен запрос PATCH /bookings/{}?approved={}", bookingId, approved);
@@ -1,121 +1,229 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
+    private static final List<String> HOP_BY_HOP_HEADERS =
+            List.of(HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, "Keep-Alive");
+    private static final int STREAM_PREFETCH = 16;
+
+    protected final WebClient rest;
+    private final boolean passthrough;
+    private final ClientMetrics metrics;
+
+    /**
+     * @param passthrough если true, статус, заголовки и тело ответа сервера передаются клиенту как есть,
+     *                    без разбора JSON; иначе успешный ответ десериализуется в Object и сериализуется заново
+     * @param metrics     таймеры сериализации, ожидания сервера и разбора ответа
+     */
+    public BaseClient(WebClient rest, boolean passthrough, ClientMetrics metrics) {
         this.rest = rest;
+        this.passthrough = passthrough;
+        this.metrics = metrics;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * Передает тело ответа сервера клиенту потоком байтов по мере получения, не разбирая JSON
+     * и не собирая ответ в памяти целиком.
+     */
+    protected Mono<ResponseEntity<StreamingResponseBody>> getStream(String path) {
+        return rest.get()
+                .uri(path)
+                .headers(headers -> defaultHeaders(headers, null))
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> prepareStreamingResponse(response, false));
+    }
+
+    /**
+     * Передает клиенту поток server-sent events сервера: каждая полученная порция сразу
+     * отправляется клиенту, а отключение клиента закрывает соединение с сервером.
+     */
+    protected Mono<ResponseEntity<StreamingResponseBody>> getEventStream(String path, long userId) {
+        return rest.get()
+                .uri(path)
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    // ошибки сервер отдает в JSON
+                    headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+                })
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> prepareStreamingResponse(response, true));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected static String withCursor(String path, @Nullable String after) {
+        return after == null ? path : path + "&after={after}";
+    }
+
+    protected static Map<String, Object> withCursor(Map<String, Object> parameters, @Nullable String after) {
+        if (after == null) return parameters;
+        Map<String, Object> result = new HashMap<>(parameters);
+        result.put("after", after);
+        return result;
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = rest.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> defaultHeaders(headers, userId));
+        if (body != null) {
+            request.bodyValue(metrics.serialize(method, body));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        Mono<ResponseEntity<byte[]>> response = metrics.network(method, request.exchangeToMono(BaseClient::readBody));
+        return passthrough
+                ? response.map(BaseClient::preparePassthroughResponse)
+                : response.map(entity -> prepareGatewayResponse(method, entity));
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static HttpHeaders forwardedHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(serverHeaders);
+        HOP_BY_HOP_HEADERS.forEach(headers::remove);
+        return headers;
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    /**
+     * Ошибка потока сервера пробрасывается из тела ответа, а не глотается: после отправки статуса
+     * контейнер обрывает соединение с клиентом, и усеченное тело не выдается за полный ответ.
+     */
+    private static ResponseEntity<StreamingResponseBody> prepareStreamingResponse(ResponseEntity<Flux<DataBuffer>> response,
+                                                                                  boolean flushEachBuffer) {
+        Flux<DataBuffer> body = response.getBody();
+
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(forwardedHeaders(response.getHeaders()))
+                .body(out -> {
+                    if (body == null) return;
+                    try (Stream<DataBuffer> buffers = body.toStream(STREAM_PREFETCH)) {
+                        buffers.forEach(buffer -> {
+                            try (InputStream in = buffer.asInputStream(true)) {
+                                in.transferTo(out);
+                                if (flushEachBuffer) out.flush();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                    }
+                });
+    }
+
+    private static Mono<ResponseEntity<byte[]>> readBody(ClientResponse response) {
+        return response.toEntity(byte[].class);
+    }
+
+    /**
+     * Тело ответа собирается в byte[] и записывается клиенту ByteArrayHttpMessageConverter'ом
+     * с Content-Type сервера, поэтому JSON на пути ответа не разбирается.
+     */
+    private static ResponseEntity<Object> preparePassthroughResponse(ResponseEntity<byte[]> entity) {
+        return ResponseEntity.status(entity.getStatusCode())
+                .headers(forwardedHeaders(entity.getHeaders()))
+                .body(entity.getBody());
+    }
+
+    /**
+     * Успешный ответ сериализуется заново, поэтому Content-Length сервера не передается;
+     * тело ошибки передается байтами с заголовками сервера.
+     */
+    private ResponseEntity<Object> prepareGatewayResponse(HttpMethod method, ResponseEntity<byte[]> entity) {
+        HttpHeaders headers = forwardedHeaders(entity.getHeaders());
+        if (entity.getStatusCode().is2xxSuccessful()) {
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return new ResponseEntity<>(metrics.deserialize(method, entity.getBody()), headers, entity.getStatusCode());
         }
 
-        return responseBuilder.build();
+        return ResponseEntity.status(entity.getStatusCode())
+                .headers(headers)
+                .body(entity.getBody());
     }
 }
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Таймер shareit.gateway.client делит время запроса к серверу по фазам (тег phase):
+ * serialization - тело запроса в JSON, network - от отправки запроса до получения всего тела ответа
+ * (включая обработку на сервере), deserialization - разбор JSON ответа (только без passthrough).
+ */
+@Component
+public class ClientMetrics {
+
+    public static final String METRIC = "shareit.gateway.client";
+
+    private final MeterRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ClientMetrics(MeterRegistry registry, ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] serialize(HttpMethod method, Object body) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            sample.stop(timer(method, "serialization"));
+        }
+    }
+
+    @Nullable
+    public Object deserialize(HttpMethod method, @Nullable byte[] body) {
+        if (body == null || body.length == 0) return null;
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return objectMapper.readValue(body, Object.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            sample.stop(timer(method, "deserialization"));
+        }
+    }
+
+    public <T> Mono<T> network(HttpMethod method, Mono<T> exchange) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return exchange.doFinally(signal -> sample.stop(timer(method, "network")));
+        });
+    }
+
+    private Timer timer(HttpMethod method, String phase) {
+        return timers.computeIfAbsent(method.name() + ' ' + phase, key -> Timer.builder(METRIC)
+                .description("Время запроса шлюза к серверу по фазам")
+                .tag("method", method.name())
+                .tag("phase", phase)
+                .register(registry));
+    }
+}
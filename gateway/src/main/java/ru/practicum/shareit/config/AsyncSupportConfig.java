@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Асинхронные ответы шлюза (StreamingResponseBody: поток GET /users и SSE GET /bookings/feed) пишутся
+ * в виртуальных потоках, по потоку на ответ. Открытый поток SSE занимает свой поток до отключения
+ * клиента, поэтому в общем пуле applicationTaskExecutor ответы сверх его размера ждали бы в очереди.
+ * Время жизни асинхронного ответа - spring.mvc.async.request-timeout.
+ */
+@Configuration
+public class AsyncSupportConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService streamExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stream-", 0).factory());
+    }
+
+    @Bean
+    public WebMvcConfigurer asyncSupportConfigurer(ExecutorService streamExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new TaskExecutorAdapter(streamExecutor));
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Режим shareit.execution-mode=virtual: запросы к шлюзу обрабатываются в виртуальных потоках вместо пула
+ * потоков Tomcat, а ответы сервера на вызовы BaseClient передаются дальше тоже в виртуальных потоках,
+ * не занимая потоки цикла событий Netty. Асинхронные ответы в виртуальных потоках пишутся в обоих режимах,
+ * см. AsyncSupportConfig.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.execution-mode", havingValue = "virtual")
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("request-", 0).factory());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler clientScheduler() {
+        return Schedulers.fromExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("client-", 0).factory()), "client");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer(ExecutorService requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Bean
+    public WebClientCustomizer virtualThreadsClientCustomizer(Scheduler clientScheduler) {
+        return builder -> builder.filter((request, next) -> next.exchange(request).publishOn(clientScheduler));
+    }
+}
@@ -5,6 +5,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import javax.validation.ConstraintViolationException;
 
 @Slf4j
 @RestControllerAdvice
@@ -17,4 +20,20 @@ public class ExceptionsHandler {
         log.debug("Ошибка состояния {}", response);
         return response;
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolationException(final ConstraintViolationException e) {
+        ErrorResponse response = new ErrorResponse("validation", e.getMessage());
+        log.debug("Ошибка валидации {}", response);
+        return response;
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServerUnavailableException(final WebClientRequestException e) {
+        ErrorResponse response = new ErrorResponse("server", e.getMostSpecificCause().getMessage());
+        log.warn("Сервер недоступен {} {}", e.getMethod(), e.getUri(), e);
+        return response;
+    }
 }
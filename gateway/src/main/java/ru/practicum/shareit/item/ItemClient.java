@@ -2,14 +2,17 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMetrics;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,36 +21,58 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.passthrough}") boolean passthrough,
+                      WebClient.Builder builder,
+                      ClientMetrics metrics) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough,
+                metrics
         );
     }
 
-    public ResponseEntity<Object> getById(long itemId, long userId) {
+    public Mono<ResponseEntity<Object>> getById(long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
-        return get("?&from={from}&size={size}", userId, getParameters(from, size));
+    public Mono<ResponseEntity<Object>> getAll(long userId, int from, int size, String after) {
+        return get(withCursor("?&from={from}&size={size}", after), userId, withCursor(getParameters(from, size), after));
     }
 
-    public ResponseEntity<Object> searchByText(String text, int from, int size) {
-        return get("/search?&text={text}&from={from}&size={size}", null, getParameters(text, from, size));
+    public Mono<ResponseEntity<Object>> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, Map.of("from", from, "to", to));
     }
 
-    public ResponseEntity<Object> add(ItemDto itemDto, long userId) {
+    public Mono<ResponseEntity<Object>> searchByText(String text, int from, int size, LocalDateTime start, LocalDateTime end) {
+        String path = "/search?&text={text}&from={from}&size={size}";
+        Map<String, Object> parameters = new HashMap<>(getParameters(text, from, size));
+        if (start != null) {
+            path += "&start={start}";
+            parameters.put("start", start);
+        }
+        if (end != null) {
+            path += "&end={end}";
+            parameters.put("end", end);
+        }
+        return get(path, null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> add(ItemDto itemDto, long userId) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(long itemId, ItemDto itemDto, long userId) {
+    public Mono<ResponseEntity<Object>> addAll(List<ItemDto> itemDtos, long userId) {
+        return post("/batch", userId, itemDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> update(long itemId, ItemDto itemDto, long userId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> deleteById(long itemId, long userId) {
+    public Mono<ResponseEntity<Object>> deleteById(long itemId, long userId) {
         return delete("/" + itemId, userId);
     }
 
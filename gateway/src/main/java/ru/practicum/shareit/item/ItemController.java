@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,13 +15,18 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.comment.CommentClient;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -31,6 +37,7 @@ public class ItemController {
     private final ItemClient itemClient;
     private final CommentClient commentClient;
     private static final String HEADER = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 1000;
 
     @Autowired
     public ItemController(ItemClient itemClient, CommentClient commentClient) {
@@ -39,37 +46,55 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@PathVariable long itemId,
+    public Mono<ResponseEntity<Object>> getById(@PathVariable long itemId,
                                           @RequestHeader(HEADER) long userId) {
         log.info("Получен запрос GET /items/{}", itemId);
         return itemClient.getById(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(HEADER) long userId,
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(HEADER) long userId,
                                 @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                @Positive @RequestParam(defaultValue = "20") int size) {
+                                @Positive @RequestParam(defaultValue = "20") int size,
+                                @RequestParam(required = false) String after) {
         log.info("Получен запрос GET /items");
-        return itemClient.getAll(userId, from, size);
+        return itemClient.getAll(userId, from, size, after);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable long itemId,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос GET /items/{}/availability", itemId);
+        return itemClient.getAvailability(itemId, from, to);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchByText(@RequestParam String text,
+    public Mono<ResponseEntity<Object>> searchByText(@RequestParam String text,
                                       @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                      @Positive @RequestParam(defaultValue = "20") int size) {
+                                      @Positive @RequestParam(defaultValue = "20") int size,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         log.info("Получен запрос GET /items/search?text={}", text);
-        return itemClient.searchByText(text.toLowerCase(), from, size);
+        return itemClient.searchByText(text.toLowerCase(), from, size, start, end);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@Valid @RequestBody ItemDto itemDto,
+    public Mono<ResponseEntity<Object>> add(@Valid @RequestBody ItemDto itemDto,
                        @RequestHeader(HEADER) long userId) {
         log.info("Получен запрос POST /items");
         return itemClient.add(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addAll(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid ItemDto> itemDtos,
+                                               @RequestHeader(HEADER) long userId) {
+        log.info("Получен запрос POST /items/batch, размер {}", itemDtos.size());
+        return itemClient.addAll(itemDtos, userId);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable long itemId,
+    public Mono<ResponseEntity<Object>> addComment(@PathVariable long itemId,
                                  @Valid @RequestBody CommentDto commentDto,
                                  @RequestHeader(HEADER) long userId) {
         log.info("Получен запрос POST /items/{}/comment", itemId);
@@ -77,7 +102,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@PathVariable long itemId,
+    public Mono<ResponseEntity<Object>> update(@PathVariable long itemId,
                           @RequestBody ItemDto itemDto,
                           @RequestHeader(HEADER) long userId) {
         log.info("Получен запрос PATCH /items/{}", itemId);
@@ -85,7 +110,7 @@ public class ItemController {
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteById(@PathVariable long itemId,
+    public Mono<ResponseEntity<Object>> deleteById(@PathVariable long itemId,
                            @RequestHeader(HEADER) long userId) {
         log.info("Получен запрос DELETE /items/{}", itemId);
         return itemClient.deleteById(itemId, userId);
@@ -2,12 +2,13 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMetrics;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
 import java.util.Map;
@@ -18,28 +19,35 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.passthrough}") boolean passthrough,
+                         WebClient.Builder builder,
+                         ClientMetrics metrics) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough,
+                metrics
         );
     }
 
-    public ResponseEntity<Object> getAllByUser(long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> getAllByUser(long userId, int from, @Nullable Integer size) {
+        if (size == null) {
+            return get("", userId);
+        }
+        return get("?&from={from}&size={size}", userId, getParameters(from, size));
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
-        return get("/all?&from={from}&size={size}", userId, getParameters(from, size));
+    public Mono<ResponseEntity<Object>> getAll(long userId, int from, int size, String after) {
+        return get(withCursor("/all?&from={from}&size={size}", after), userId, withCursor(getParameters(from, size), after));
     }
 
-    public ResponseEntity<Object> getById(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> addRequest(long userId, ItemRequestShortDto shortDto) {
+    public Mono<ResponseEntity<Object>> addRequest(long userId, ItemRequestShortDto shortDto) {
         return post("", userId, shortDto);
     }
 
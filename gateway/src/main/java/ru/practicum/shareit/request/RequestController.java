@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
 import javax.validation.Valid;
@@ -26,29 +27,32 @@ public class RequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByUser(@RequestHeader(HEADER) long userId) {
+    public Mono<ResponseEntity<Object>> getAllByUser(@RequestHeader(HEADER) long userId,
+                                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                     @Positive @RequestParam(required = false) Integer size) {
         log.info("Получен запрос GET /requests");
-        return requestClient.getAllByUser(userId);
+        return requestClient.getAllByUser(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader(HEADER) long userId,
-                                       @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                       @Positive @RequestParam(defaultValue = "20") int size) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(HEADER) long userId,
+                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                               @Positive @RequestParam(defaultValue = "20") int size,
+                                               @RequestParam(required = false) String after) {
         log.info("Получен запрос GET /requests/all");
-        return requestClient.getAll(userId, from, size);
+        return requestClient.getAll(userId, from, size, after);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader(HEADER) long userId,
-                                  @PathVariable long requestId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(HEADER) long userId,
+                                                @PathVariable long requestId) {
         log.info("Получен запрос GET /requests/{}", requestId);
         return requestClient.getById(userId, requestId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addRequest(@RequestHeader(HEADER) long userId,
-                                     @Valid @RequestBody ItemRequestShortDto itemRequestShortDto) {
+    public Mono<ResponseEntity<Object>> addRequest(@RequestHeader(HEADER) long userId,
+                                                   @Valid @RequestBody ItemRequestShortDto itemRequestShortDto) {
         log.info("Получен запрос POST /requests");
         return requestClient.addRequest(userId, itemRequestShortDto);
     }
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Трассировка запросов шлюза к серверу сверх общей из {@link TracingConfig}.
+ */
+@Configuration
+public class GatewayTracingConfig {
+
+    /**
+     * Спан CLIENT на каждый запрос к серверу и заголовок traceparent с его контекстом. Запрос WebClient
+     * подписывается в потоке контроллера, поэтому родителем становится спан входящего запроса.
+     */
+    @Bean
+    public WebClientCustomizer tracingWebClientCustomizer(OpenTelemetry openTelemetry, Tracer tracer) {
+        TextMapPropagator propagator = openTelemetry.getPropagators().getTextMapPropagator();
+        ExchangeFilterFunction filter = (request, next) -> Mono.defer(() -> {
+            Span span = tracer.spanBuilder(request.method().name())
+                    .setSpanKind(SpanKind.CLIENT)
+                    .setAttribute("http.request.method", request.method().name())
+                    .setAttribute("url.full", request.url().toString())
+                    .startSpan();
+            ClientRequest traced = ClientRequest.from(request)
+                    .headers(headers -> propagator.inject(Context.current().with(span), headers, HttpHeaders::set))
+                    .build();
+            return next.exchange(traced)
+                    .doOnNext(response -> {
+                        span.setAttribute("http.response.status_code", response.rawStatusCode());
+                        if (response.rawStatusCode() >= 500) span.setStatus(StatusCode.ERROR);
+                    })
+                    .doOnError(e -> {
+                        span.recordException(e);
+                        span.setStatus(StatusCode.ERROR);
+                    })
+                    .doFinally(signal -> span.end());
+        });
+        return builder -> builder.filter(filter);
+    }
+}
@@ -12,9 +12,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -23,6 +28,7 @@ import javax.validation.Valid;
 public class UserController {
 
     private final UserClient userClient;
+    private static final int MAX_BATCH_SIZE = 1000;
 
     @Autowired
     public UserController(UserClient userClient) {
@@ -30,32 +36,38 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable long userId) {
         log.info("Получен запрос GET /users/{}", userId);
         return userClient.getById(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<StreamingResponseBody>> getAll() {
         log.info("Получен запрос GET /users");
         return userClient.getAll();
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> add(@Valid @RequestBody UserDto userDto) {
         log.info("Получен запрос POST /users");
         return userClient.add(userDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addAll(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid UserDto> userDtos) {
+        log.info("Получен запрос POST /users/batch, размер {}", userDtos.size());
+        return userClient.addAll(userDtos);
+    }
+
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable long userId,
+    public Mono<ResponseEntity<Object>> update(@PathVariable long userId,
                           @Valid @RequestBody UserDto userDto) {
         log.info("Получен запрос PATCH /users/{}", userId);
         return userClient.update(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> deleteById(@PathVariable long userId) {
         log.info("Получен запрос DELETE /users/{}", userId);
         return userClient.deleteById(userId);
     }
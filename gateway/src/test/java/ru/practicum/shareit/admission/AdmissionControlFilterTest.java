@@ -0,0 +1,105 @@
+package ru.practicum.shareit.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+public class AdmissionControlFilterTest {
+
+    private static final String IP = "10.0.0.1";
+    private static final FilterChain OK = (request, response) -> { };
+
+    private final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(1, 0, Duration.ZERO);
+
+    @Test
+    public void shouldRejectOverRateLimitWith429AndRetryAfter() throws Exception {
+        AdmissionControlFilter filter = filter(RateLimit.parse("1/1"), RateLimit.parse("100/100"));
+
+        Assertions.assertEquals(200, send(filter, "1", OK).getStatus());
+        MockHttpServletResponse response = send(filter, "1", OK);
+
+        Assertions.assertEquals(429, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    public void shouldLimitAllClientsOfOneIp() throws Exception {
+        AdmissionControlFilter filter = filter(RateLimit.parse("100/100"), RateLimit.parse("1/2"));
+
+        Assertions.assertEquals(200, send(filter, "1", OK).getStatus());
+        Assertions.assertEquals(200, send(filter, "2", OK).getStatus());
+        Assertions.assertEquals(429, send(filter, "3", OK).getStatus());
+    }
+
+    @Test
+    public void shouldRejectOverConcurrencyLimitWith503AndRefundTokens() throws Exception {
+        AdmissionControlFilter filter = filter(RateLimit.parse("1/1"), RateLimit.parse("100/100"));
+        Assertions.assertTrue(concurrencyLimiter.acquire());
+
+        MockHttpServletResponse response = send(filter, "1", OK);
+
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+
+        concurrencyLimiter.release();
+
+        Assertions.assertEquals(200, send(filter, "1", OK).getStatus());
+    }
+
+    @Test
+    public void shouldReleasePermitWhenChainThrows() {
+        AdmissionControlFilter filter = filter(RateLimit.parse("100/100"), RateLimit.parse("100/100"));
+
+        Assertions.assertThrows(ServletException.class, () -> send(filter, "1", (request, response) -> {
+            throw new ServletException("ошибка обработчика");
+        }));
+
+        Assertions.assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    public void shouldHoldPermitUntilAsyncResponseCompletes() throws Exception {
+        AdmissionControlFilter filter = filter(RateLimit.parse("100/100"), RateLimit.parse("100/100"));
+        MockHttpServletRequest request = request("1");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        Assertions.assertEquals(1, concurrencyLimiter.getInFlight());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        Assertions.assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    private AdmissionControlFilter filter(RateLimit userLimit, RateLimit ipLimit) {
+        RateLimiter rateLimiter = new RateLimiter(userLimit, RateLimit.parse("100/100"), ipLimit, Map.of());
+        return new AdmissionControlFilter(rateLimiter, concurrencyLimiter, Set.of("/bookings/feed"), 1,
+                new ObjectMapper());
+    }
+
+    private static MockHttpServletResponse send(AdmissionControlFilter filter, String userId, FilterChain chain)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(userId), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.setRemoteAddr(IP);
+        request.addHeader("X-Sharer-User-Id", userId);
+        return request;
+    }
+}
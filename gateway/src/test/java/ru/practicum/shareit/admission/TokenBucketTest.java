@@ -0,0 +1,90 @@
+package ru.practicum.shareit.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucketTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void shouldAllowBurstThenReportWaitForNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+        Assertions.assertEquals(INTERVAL, bucket.tryAcquire(0));
+        Assertions.assertEquals(INTERVAL, bucket.waitTime(0));
+    }
+
+    @Test
+    public void shouldRefillOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        for (int i = 0; i < 3; i++) bucket.tryAcquire(0);
+
+        Assertions.assertEquals(INTERVAL / 2, bucket.tryAcquire(INTERVAL / 2));
+        Assertions.assertEquals(0, bucket.tryAcquire(INTERVAL));
+        Assertions.assertTrue(bucket.tryAcquire(INTERVAL) > 0);
+        Assertions.assertFalse(bucket.isFull(INTERVAL));
+        Assertions.assertTrue(bucket.isFull(4 * INTERVAL));
+    }
+
+    @Test
+    public void shouldNotRefillAboveBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        Assertions.assertEquals(0, bucket.tryAcquire(100 * INTERVAL));
+        Assertions.assertEquals(0, bucket.tryAcquire(100 * INTERVAL));
+        Assertions.assertTrue(bucket.tryAcquire(100 * INTERVAL) > 0);
+    }
+
+    @Test
+    public void shouldReturnRefundedToken() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        bucket.tryAcquire(0);
+
+        bucket.refund();
+
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+    }
+
+    @Test
+    public void shouldGiveOutExactlyBurstTokensToConcurrentCallers() throws Exception {
+        int burst = 1000;
+        int threads = 8;
+        TokenBucket bucket = new TokenBucket(1, burst, 0);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> acquired = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                acquired.add(executor.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    for (int j = 0; j < burst; j++) {
+                        if (bucket.tryAcquire(0) == 0) count++;
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : acquired) {
+                total += future.get(10, TimeUnit.SECONDS);
+            }
+
+            Assertions.assertEquals(burst, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
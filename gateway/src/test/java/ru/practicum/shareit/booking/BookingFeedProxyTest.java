@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.StubServer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ленты GET /bookings/feed через шлюз: каждая открытая лента занимает поток записи ответа до отключения
+ * клиента, и подписчики сверх прежнего пула из 32 потоков тоже получают события.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BookingFeedProxyTest {
+
+    private static final int STREAMS = 40;
+    private static final StubServer SERVER = new StubServer();
+    private static final CountDownLatch CLOSE = new CountDownLatch(1);
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stop() {
+        CLOSE.countDown();
+        SERVER.close();
+    }
+
+    @Test
+    public void shouldKeepMoreStreamsOpenThanPlatformPool() throws Exception {
+        SERVER.handle("/bookings/feed", exchange -> {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write("event:WAITING\ndata:{}\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                CLOSE.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            out.close();
+        });
+        HttpClient client = HttpClient.newHttpClient();
+        List<CompletableFuture<HttpResponse<InputStream>>> responses = new ArrayList<>();
+        for (int i = 1; i <= STREAMS; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings/feed"))
+                    .header("X-Sharer-User-Id", String.valueOf(i))
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofInputStream()));
+        }
+
+        byte[] expected = "event:WAITING".getBytes(StandardCharsets.UTF_8);
+        for (CompletableFuture<HttpResponse<InputStream>> future : responses) {
+            HttpResponse<InputStream> response = future.get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(200, response.statusCode());
+            Assertions.assertArrayEquals(expected, response.body().readNBytes(expected.length));
+        }
+        for (CompletableFuture<HttpResponse<InputStream>> future : responses) {
+            future.get().body().close();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.StubServer;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BaseClientTest {
+
+    private static final String JSON = "application/json";
+    private static final String ERROR = "{\"error\":\"user\",\"message\":\"не найден\"}";
+
+    private final StubServer server = new StubServer();
+
+    @AfterEach
+    public void stop() {
+        server.close();
+    }
+
+    @Test
+    public void shouldForwardErrorWithServerHeaders() {
+        server.respond("/users/99", 404, Map.of(HttpHeaders.CONTENT_TYPE, JSON), ERROR);
+
+        ResponseEntity<Object> response = client(false).getById(99).block();
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        Assertions.assertEquals(ERROR, new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldParseSuccessWithoutServerContentLength() {
+        server.respond("/users/1", 200, Map.of(HttpHeaders.CONTENT_TYPE, JSON), "{ \"id\" : 1, \"name\" : \"user\" }");
+
+        ResponseEntity<Object> response = client(false).getById(1).block();
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(Map.of("id", 1, "name", "user"), response.getBody());
+        Assertions.assertEquals(-1, response.getHeaders().getContentLength());
+    }
+
+    @Test
+    public void shouldPassBytesThroughWithoutHopByHopHeaders() {
+        String body = "{ \"id\" : 1 }";
+        server.respond("/users/1", 200, Map.of(HttpHeaders.CONTENT_TYPE, JSON, "Keep-Alive", "timeout=5"), body);
+
+        ResponseEntity<Object> response = client(true).getById(1).block();
+
+        Assertions.assertEquals(body, new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        Assertions.assertFalse(response.getHeaders().containsKey("Keep-Alive"));
+    }
+
+    @Test
+    public void shouldSendJsonBody() {
+        AtomicReference<String> received = new AtomicReference<>();
+        server.handle("/users", exchange -> {
+            received.set(exchange.getRequestHeaders().getFirst(HttpHeaders.CONTENT_TYPE) + " "
+                    + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            StubServer.send(exchange, 201, Map.of(HttpHeaders.CONTENT_TYPE, JSON), "{}");
+        });
+
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail("user@email.ru");
+
+        ResponseEntity<Object> response = client(true).add(user).block();
+
+        Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        Assertions.assertTrue(received.get().startsWith(JSON + " {"), received.get());
+        Assertions.assertTrue(received.get().contains("\"email\":\"user@email.ru\""), received.get());
+    }
+
+    @Test
+    public void shouldStreamBody() throws Exception {
+        server.respond("/users", 200, Map.of(HttpHeaders.CONTENT_TYPE, JSON), "[{\"id\":1},{\"id\":2}]");
+
+        ResponseEntity<StreamingResponseBody> response = client(true).getAll().block();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        Assertions.assertEquals("[{\"id\":1},{\"id\":2}]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldFailWhenServerUnavailable() {
+        UserClient client = client(true);
+        server.close();
+
+        Assertions.assertThrows(WebClientRequestException.class, () -> client.getById(1).block());
+    }
+
+    private UserClient client(boolean passthrough) {
+        return new UserClient(server.url(), passthrough, WebClient.builder(),
+                new ClientMetrics(new SimpleMeterRegistry(), new ObjectMapper()));
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Шлюз подключает общий logback-spring.xml: запись через AsyncAppender и выборка логов контроллеров.
+ */
+@SpringBootTest
+public class LoggingConfigTest {
+
+    @Test
+    public void shouldLogThroughAsyncAppenderWithSampling() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Appender<ILoggingEvent> appender = context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC");
+
+        Assertions.assertInstanceOf(AsyncAppender.class, appender);
+        Assertions.assertEquals(8192, ((AsyncAppender) appender).getQueueSize());
+        Assertions.assertTrue(((AsyncAppender) appender).isNeverBlock());
+        Assertions.assertTrue(context.getTurboFilterList().stream()
+                .anyMatch(filter -> filter instanceof RequestLogSamplingFilter));
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.StubServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Трасса из заголовка traceparent продолжается в спане входящего запроса шлюза, спане CLIENT запроса
+ * к серверу и в заголовке traceparent, который получает сервер.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.tracing.exporter=memory")
+public class GatewayTracingTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+    private static final StubServer SERVER = new StubServer();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+    @Autowired
+    private InMemorySpanExporter exporter;
+    private final AtomicReference<String> received = new AtomicReference<>();
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stop() {
+        SERVER.close();
+    }
+
+    @BeforeEach
+    public void stubServer() {
+        SERVER.handle("/users/1", exchange -> {
+            received.set(exchange.getRequestHeaders().getFirst("traceparent"));
+            StubServer.send(exchange, 200, Map.of(HttpHeaders.CONTENT_TYPE, "application/json"), "{\"id\":1}");
+        });
+        flush();
+        exporter.clear();
+    }
+
+    @Test
+    public void shouldPropagateTraceToServer() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1"))
+                .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_ID + "-01")
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(200, response.statusCode());
+
+        List<SpanData> spans = awaitServerSpan();
+        SpanData server = single(spans, SpanKind.SERVER);
+        Assertions.assertEquals(TRACE_ID, server.getTraceId());
+        Assertions.assertEquals(PARENT_ID, server.getParentSpanId());
+        SpanData client = single(spans, SpanKind.CLIENT);
+        Assertions.assertEquals(TRACE_ID, client.getTraceId());
+        Assertions.assertEquals(server.getSpanId(), client.getParentSpanId());
+        Assertions.assertEquals(200L, client.getAttributes().asMap().entrySet().stream()
+                .filter(entry -> entry.getKey().getKey().equals("http.response.status_code"))
+                .findFirst().orElseThrow().getValue());
+        Assertions.assertEquals("00-" + TRACE_ID + "-" + client.getSpanId() + "-01", received.get());
+    }
+
+    /**
+     * Спан SERVER закрывается после отправки ответа, поэтому клиент может получить ответ раньше.
+     */
+    private List<SpanData> awaitServerSpan() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            flush();
+            List<SpanData> spans = exporter.getSpans();
+            boolean ended = spans.stream().anyMatch(span -> span.getKind() == SpanKind.SERVER);
+            if (ended || System.currentTimeMillis() > deadline) return spans;
+            Thread.sleep(10);
+        }
+    }
+
+    private void flush() {
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+    }
+
+    private static SpanData single(List<SpanData> spans, SpanKind kind) {
+        List<SpanData> found = spans.stream()
+                .filter(span -> span.getKind() == kind)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(1, found.size(), () -> kind + " в " + spans);
+        return found.get(0);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.StubServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Поток GET /users через шлюз: обрыв ответа сервера обрывает и ответ шлюза, клиент не получает
+ * усеченный JSON-массив под статусом 200 как полный ответ.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class UserStreamProxyTest {
+
+    private static final StubServer SERVER = new StubServer();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stop() {
+        SERVER.close();
+    }
+
+    @Test
+    public void shouldStreamCompleteArray() throws Exception {
+        SERVER.respond("/users", 200, Map.of(HttpHeaders.CONTENT_TYPE, "application/json"), "[{\"id\":1}]");
+
+        HttpResponse<String> response = send();
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("[{\"id\":1}]", response.body());
+    }
+
+    @Test
+    public void shouldAbortResponseWhenServerAbortsBeforeGatewayCommits() {
+        abortAfter("[{\"id\":1},");
+
+        Assertions.assertThrows(IOException.class, this::sendExpectingFailure);
+    }
+
+    @Test
+    public void shouldAbortResponseWhenServerAbortsAfterGatewayCommits() {
+        // начало тела больше буфера ответа шлюза, поэтому статус 200 уже отправлен клиенту
+        abortAfter("[" + "{\"id\":1},".repeat(10_000));
+
+        Assertions.assertThrows(IOException.class, this::send);
+    }
+
+    private void abortAfter(String prefix) {
+        SERVER.handle("/users", exchange -> {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write(prefix.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            // исключение обработчика закрывает соединение без завершающего блока chunked
+            throw new IOException("сервер упал посреди ответа");
+        });
+    }
+
+    /**
+     * До отправки статуса шлюз еще может ответить ошибкой: тогда ответ не 2xx и тоже не выдается за полный.
+     */
+    private void sendExpectingFailure() throws IOException, InterruptedException {
+        HttpResponse<String> response = send();
+        if (response.statusCode() >= 500) throw new IOException("шлюз ответил " + response.statusCode());
+        Assertions.fail("усеченный ответ выдан как полный: " + response.statusCode());
+    }
+
+    private HttpResponse<String> send() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users")).build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
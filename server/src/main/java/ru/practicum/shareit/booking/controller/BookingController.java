@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,9 +13,11 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -31,6 +35,12 @@ public class BookingController {
         this.bookingService = bookingService;
     }
 
+    @GetMapping(path = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getFeed(@RequestHeader(HEADER) long userId) {
+        log.info("Получен запрос GET /bookings/feed");
+        return bookingService.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable long bookingId,
                                      @RequestHeader(HEADER) long userId) {
@@ -39,21 +49,29 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsByBooker(@RequestParam(defaultValue = "ALL") String state,
-                                                   @RequestHeader(HEADER) long bookerId,
-                                                   @RequestParam int from,
-                                                   @RequestParam int size) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsByBooker(@RequestParam(defaultValue = "ALL") String state,
+                                                                   @RequestHeader(HEADER) long bookerId,
+                                                                   @RequestParam int from,
+                                                                   @RequestParam int size,
+                                                                   @RequestParam(required = false) String after) {
         log.info("Получен запрос GET /bookings?state={}", state);
-        return bookingService.getAllBookingsByBooker(bookerId, state, from, size);
+        List<BookingDto> result = after == null
+                ? bookingService.getAllBookingsByBooker(bookerId, state, from, size)
+                : bookingService.getAllBookingsByBooker(bookerId, state, PageCursor.decode(after), size);
+        return PageCursor.toResponse(result, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
-                                                  @RequestHeader(HEADER) long ownerId,
-                                                  @RequestParam int from,
-                                                  @RequestParam int size) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
+                                                                  @RequestHeader(HEADER) long ownerId,
+                                                                  @RequestParam int from,
+                                                                  @RequestParam int size,
+                                                                  @RequestParam(required = false) String after) {
         log.info("Получен запрос GET /bookings/owner?state={}", state);
-        return bookingService.getAllBookingsByOwner(ownerId, state, from, size);
+        List<BookingDto> result = after == null
+                ? bookingService.getAllBookingsByOwner(ownerId, state, from, size)
+                : bookingService.getAllBookingsByOwner(ownerId, state, PageCursor.decode(after), size);
+        return PageCursor.toResponse(result, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 
     @PostMapping
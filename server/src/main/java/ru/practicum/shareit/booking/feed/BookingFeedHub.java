@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking.feed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылка изменений бронирований подписчикам GET /bookings/feed (server-sent events).
+ * У каждого подписчика своя очередь на shareit.booking-feed.buffer-size событий, ее разбирает
+ * отдельный виртуальный поток, поэтому медленный клиент не задерживает сервис и других подписчиков.
+ * Если очередь переполнена, подписчик отключается: клиент переподключается и перечитывает
+ * бронирования через REST. События рассылаются после коммита транзакции и только подписчикам
+ * этого экземпляра сервера.
+ */
+@Slf4j
+@Component
+public class BookingFeedHub {
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService executor;
+    private final long timeout;
+    private final int bufferSize;
+    private final Counter overflows;
+
+    @Autowired
+    public BookingFeedHub(@Value("${shareit.booking-feed.timeout}") Duration timeout,
+                          @Value("${shareit.booking-feed.buffer-size}") int bufferSize,
+                          MeterRegistry meterRegistry) {
+        this(timeout, bufferSize, meterRegistry,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("booking-feed-", 0).factory()));
+    }
+
+    /**
+     * @param executor выполняет разбор очередей подписчиков, по задаче на непустую очередь
+     */
+    public BookingFeedHub(Duration timeout, int bufferSize, MeterRegistry meterRegistry, ExecutorService executor) {
+        this.executor = executor;
+        this.timeout = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        Gauge.builder("shareit.booking.feed.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Число подписчиков ленты бронирований")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("shareit.booking.feed.overflows")
+                .description("Подписчики ленты, отключенные из-за переполнения очереди")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(long userId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<Subscriber> result = userSubscribers == null ? ConcurrentHashMap.newKeySet() : userSubscribers;
+            result.add(subscriber);
+            return result;
+        });
+        subscriberCount.incrementAndGet();
+        // без первой записи заголовки ответа не отправляются до первого события, и шлюз ждет их
+        subscriber.offer(SseEmitter.event().comment(""));
+        return emitter;
+    }
+
+    /**
+     * Отправляет бронирование подписчикам пользователя после коммита текущей транзакции,
+     * имя события - статус бронирования.
+     */
+    public void publish(long userId, BookingDto booking) {
+        afterCommit(() -> {
+            Set<Subscriber> userSubscribers = subscribers.get(userId);
+            if (userSubscribers == null) return;
+            // билдер события изменяется при отправке, поэтому у каждого подписчика свой
+            userSubscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event()
+                    .name(booking.getStatus().name())
+                    .data(booking, MediaType.APPLICATION_JSON)));
+        });
+    }
+
+    /**
+     * Комментарий-пульс подписчикам с пустой очередью: соединение не закрывается по таймауту
+     * чтения у прокси и шлюза, а отключившиеся клиенты обнаруживаются без ожидания событий.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-feed.heartbeat-interval}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            if (subscriber.buffer.isEmpty()) subscriber.offer(SseEmitter.event().comment(""));
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) return;
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private class Subscriber {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) return;
+            if (!buffer.offer(event)) {
+                overflows.increment();
+                log.warn("Очередь ленты бронирований пользователя {} переполнена, подписчик отключен", userId);
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) executor.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                do {
+                    SseEmitter.SseEventBuilder event;
+                    while ((event = buffer.poll()) != null) {
+                        emitter.send(event);
+                    }
+                    draining.set(false);
+                } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // клиент отключился или эмиттер уже завершен
+                unsubscribe(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.controller.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    List<Booking> findAllByRole(BookingRole role, long userId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findAllByRoleAfter(BookingRole role, long userId, BookingState state, LocalDateTime now, PageCursor after, int size);
+}
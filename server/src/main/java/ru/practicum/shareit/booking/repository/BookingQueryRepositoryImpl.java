@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.controller.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.PageCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Единый запрос списка бронирований по роли пользователя, state и курсору.
+ * Сортировка всегда по убыванию (date_start, id), сортировка из Pageable не используется.
+ * Все значения передаются параметрами, поэтому текст SQL зависит только от формы запроса
+ * (роль, state, есть ли курсор): план из кэша Hibernate и подготовленный оператор драйвера
+ * переиспользуются для любых пользователей и моментов времени.
+ * С курсором страница ищется по ключу (date_start, id) вместо OFFSET и стоимость не растет с глубиной.
+ * Вещь и арендатор выбираются тем же запросом, чтобы Mapper.toDto не догружал их по одному.
+ */
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAllByRole(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                       Pageable pageable) {
+        return find(role, userId, state, now, null, pageable.getPageSize())
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .getResultList();
+    }
+
+    @Override
+    public List<Booking> findAllByRoleAfter(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                            PageCursor after, int size) {
+        return find(role, userId, state, now, after, size)
+                .getResultList();
+    }
+
+    private TypedQuery<Booking> find(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                     PageCursor after, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        @SuppressWarnings("unchecked")
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        booking.fetch("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        ParameterExpression<Long> userParameter = cb.parameter(Long.class);
+        ParameterExpression<LocalDateTime> nowParameter = cb.parameter(LocalDateTime.class);
+        ParameterExpression<BookingStatus> statusParameter = cb.parameter(BookingStatus.class);
+        ParameterExpression<LocalDateTime> afterStartParameter = cb.parameter(LocalDateTime.class);
+        ParameterExpression<Long> afterIdParameter = cb.parameter(Long.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (role == BookingRole.OWNER) {
+            predicates.add(cb.equal(item.get("owner").get("id"), userParameter));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), userParameter));
+        }
+
+        BookingStatus status = null;
+        boolean usesNow = false;
+        switch (state) {
+            case WAITING:
+                status = BookingStatus.WAITING;
+                predicates.add(cb.equal(booking.get("state"), statusParameter));
+                break;
+            case REJECTED:
+                status = BookingStatus.REJECTED;
+                predicates.add(cb.equal(booking.get("state"), statusParameter));
+                break;
+            case CURRENT:
+                usesNow = true;
+                predicates.add(cb.lessThan(start, nowParameter));
+                predicates.add(cb.greaterThan(end, nowParameter));
+                break;
+            case PAST:
+                // start < end для любого бронирования, поэтому end < now достаточно
+                usesNow = true;
+                predicates.add(cb.lessThan(end, nowParameter));
+                break;
+            case FUTURE:
+                usesNow = true;
+                predicates.add(cb.greaterThan(start, nowParameter));
+                break;
+            default:
+                break;
+        }
+
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, afterStartParameter),
+                    cb.and(cb.equal(start, afterStartParameter), cb.lessThan(id, afterIdParameter))));
+        }
+
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        TypedQuery<Booking> result = entityManager.createQuery(query)
+                .setParameter(userParameter, userId)
+                .setMaxResults(size);
+        if (status != null) result.setParameter(statusParameter, status);
+        if (usesNow) result.setParameter(nowParameter, now);
+        if (after != null) {
+            result.setParameter(afterStartParameter, after.getTimestamp());
+            result.setParameter(afterIdParameter, after.getId());
+        }
+        return result;
+    }
+}
@@ -1,16 +1,18 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.availability.BookingInterval;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
 
     @Query("select b " +
             "from Booking as b " +
@@ -20,50 +22,53 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "or i.owner.id = ?2)")
     Optional<Booking> getBookingById(long bookingId, long userId);
 
-    List<Booking> findAllByBookerId(long bookerId, Pageable pageable); //state ALL
-
-    List<Booking> findAllByBookerIdAndState(long bookerId, BookingStatus state, Pageable pageable); //state WAITING or REJECTED
-
-    List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfter(long bookerId,
-                                                                 LocalDateTime startTime,
-                                                                 LocalDateTime endTime,
-                                                                 Pageable pageable); //state CURRENT
-
-    List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsBefore(long bookerId,
-                                                                  LocalDateTime startTime,
-                                                                  LocalDateTime endTime,
-                                                                  Pageable pageable); //state PAST
-
-    List<Booking> findAllByBookerIdAndStartIsAfter(long bookerId,
-                                                   LocalDateTime startTime,
-                                                   Pageable pageable); //state FUTURE
-
     Optional<Booking> findBookingByIdAndItemOwnerId(long bookingId, long ownerId);
 
-    List<Booking> findAllByItemOwnerId(long ownerId, Pageable pageable); //state ALL
-
-    List<Booking> findAllByItemOwnerIdAndState(long ownerId, BookingStatus state, Pageable pageable); //state WAITING or REJECTED
-
-    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(long ownerId,
-                                                                    LocalDateTime startTime,
-                                                                    LocalDateTime endTime,
-                                                                    Pageable pageable); //state CURRENT
-
-    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsBefore(long ownerId,
-                                                                     LocalDateTime startTime,
-                                                                     LocalDateTime endTime,
-                                                                     Pageable pageable); //state PAST
-
-    List<Booking> findAllByItemOwnerIdAndStartIsAfter(long ownerId,
-                                                      LocalDateTime startTime,
-                                                      Pageable pageable); //state FUTURE
+    boolean existsByItemIdAndStateInAndStartBeforeAndEndAfter(long itemId,
+                                                              Collection<BookingStatus> states,
+                                                              LocalDateTime end,
+                                                              LocalDateTime start); //overlap with [start, end)
 
     Booking findFirstByItemIdAndStartAfterAndStateNotOrderByStartAsc(long itemId, LocalDateTime now, BookingStatus state);
 
     Booking findFirstByItemIdAndStartBeforeAndStateNotOrderByEndDesc(long itemId, LocalDateTime now, BookingStatus state);
 
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.item.id in ?1 " +
+            "and b.state <> ?3 " +
+            "and ((b.start > ?2 and b.start = (select min(n.start) " +
+            "from Booking as n " +
+            "where n.item.id = b.item.id and n.start > ?2 and n.state <> ?3)) " +
+            "or (b.start < ?2 and b.end = (select max(l.end) " +
+            "from Booking as l " +
+            "where l.item.id = b.item.id and l.start < ?2 and l.state <> ?3)))")
+    List<Booking> findLastAndNextByItemIds(Collection<Long> itemIds, LocalDateTime now, BookingStatus state);
+
     Optional<Booking> findFirstByItemIdAndBookerIdAndStateAndEndIsBefore(long itemId,
                                                                          long bookerId,
                                                                          BookingStatus state,
                                                                          LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.availability.BookingInterval(b.item.id, b.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.state in ?1 " +
+            "and b.end > ?2 " +
+            "order by b.item.id, b.start")
+    List<BookingInterval> findIntervalsByStateInEndingAfter(Collection<BookingStatus> states, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.availability.BookingInterval(b.item.id, b.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.booker.id = ?1")
+    List<BookingInterval> findIntervalsByBookerId(long bookerId);
+
+    @Modifying
+    @Query("delete from Booking as b " +
+            "where b.booker.id = ?1")
+    int deleteAllByBookerId(long bookerId);
+
+    @Modifying
+    @Query("delete from Booking as b " +
+            "where b.item.id in (select i.id from Item as i where i.owner.id = ?1)")
+    int deleteAllByItemOwnerId(long ownerId);
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.repository;
+
+/**
+ * Чьи бронирования выбираются: сделанные пользователем или бронирования его вещей.
+ */
+public enum BookingRole {
+    BOOKER, OWNER
+}
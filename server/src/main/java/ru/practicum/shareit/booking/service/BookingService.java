@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -13,7 +15,13 @@ public interface BookingService {
 
     List<BookingDto> getAllBookingsByOwner(long ownerId, String state, int from, int size);
 
+    List<BookingDto> getAllBookingsByBooker(long bookerId, String state, PageCursor after, int size);
+
+    List<BookingDto> getAllBookingsByOwner(long ownerId, String state, PageCursor after, int size);
+
     BookingDto add(BookingRequestDto bookingRequestDto, long bookerId);
 
     BookingDto setBookingApprove(long bookingId, long ownerId, boolean approved);
+
+    SseEmitter subscribe(long userId);
 }
@@ -2,28 +2,36 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.controller.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.feed.BookingFeedHub;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRole;
 import ru.practicum.shareit.exception.AlreadyBusyException;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.Mapper;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PaginationAndSortParams;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,15 +39,31 @@ import java.util.stream.Collectors;
 @Transactional
 public class BookingServiceImpl implements BookingService {
 
+    private static final Set<BookingStatus> ACTIVE_STATES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final OutboxService outboxService;
+    private final BookingFeedHub bookingFeedHub;
 
     @Autowired
-    public BookingServiceImpl(BookingRepository bookingRepository, UserRepository userRepository, ItemRepository itemRepository) {
+    public BookingServiceImpl(BookingRepository bookingRepository,
+                              UserRepository userRepository,
+                              ItemRepository itemRepository,
+                              ItemDetailsCache itemDetailsCache,
+                              ItemAvailabilityIndex itemAvailabilityIndex,
+                              OutboxService outboxService,
+                              BookingFeedHub bookingFeedHub) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.itemDetailsCache = itemDetailsCache;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
+        this.outboxService = outboxService;
+        this.bookingFeedHub = bookingFeedHub;
     }
 
     @Override
@@ -48,7 +72,7 @@ public class BookingServiceImpl implements BookingService {
         checkUser(userId);
         BookingDto result = Mapper.toDto(bookingRepository.getBookingById(bookingId, userId)
                 .orElseThrow(() -> new NotFoundException("booking")));
-        log.debug("Отправлен BookingDto {}", result);
+        log.debug("Отправлен BookingDto id = {}", result.getId());
         return result;
     }
 
@@ -56,33 +80,12 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsByBooker(long bookerId, String stateStr, int from, int size) {
         checkUser(bookerId);
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(from, size, "start");
-        LocalDateTime timestamp = LocalDateTime.now();
-        List<Booking> bookings;
-
-        switch (BookingState.valueOf(stateStr)) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerId(bookerId, pageRequest);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndState(bookerId, BookingStatus.WAITING, pageRequest);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndState(bookerId, BookingStatus.REJECTED, pageRequest);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(bookerId, timestamp, timestamp, pageRequest);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsBefore(bookerId, timestamp, timestamp, pageRequest);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartIsAfter(bookerId, timestamp, pageRequest);
-                break;
-            default:
-                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        log.debug("Отправлен список Booking {}", bookings);
+        List<Booking> bookings = bookingRepository.findAllByRole(BookingRole.BOOKER,
+                bookerId,
+                BookingState.valueOf(stateStr),
+                LocalDateTime.now(),
+                PaginationAndSortParams.getPageable(from, size));
+        log.debug("Отправлен список Booking, размер {}", bookings.size());
         return bookings.stream()
                 .map(Mapper::toDto)
                 .collect(Collectors.toList());
@@ -92,33 +95,44 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsByOwner(long ownerId, String stateStr, int from, int size) {
         checkUser(ownerId);
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(from, size, "start");
-        LocalDateTime timestamp = LocalDateTime.now();
-        List<Booking> bookings;
-
-        switch (BookingState.valueOf(stateStr)) {
-            case ALL:
-                bookings = bookingRepository.findAllByItemOwnerId(ownerId, pageRequest);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByItemOwnerIdAndState(ownerId, BookingStatus.WAITING, pageRequest);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByItemOwnerIdAndState(ownerId, BookingStatus.REJECTED, pageRequest);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(ownerId, timestamp, timestamp, pageRequest);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsBefore(ownerId, timestamp, timestamp, pageRequest);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsAfter(ownerId, timestamp, pageRequest);
-                break;
-            default:
-                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        log.debug("Отправлен список Booking {}", bookings);
+        List<Booking> bookings = bookingRepository.findAllByRole(BookingRole.OWNER,
+                ownerId,
+                BookingState.valueOf(stateStr),
+                LocalDateTime.now(),
+                PaginationAndSortParams.getPageable(from, size));
+        log.debug("Отправлен список Booking, размер {}", bookings.size());
+        return bookings.stream()
+                .map(Mapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingsByBooker(long bookerId, String stateStr, PageCursor after, int size) {
+        checkUser(bookerId);
+        List<Booking> bookings = bookingRepository.findAllByRoleAfter(BookingRole.BOOKER,
+                bookerId,
+                BookingState.valueOf(stateStr),
+                LocalDateTime.now(),
+                after.requireTimestamp(),
+                size);
+        log.debug("Отправлен список Booking, размер {}", bookings.size());
+        return bookings.stream()
+                .map(Mapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingsByOwner(long ownerId, String stateStr, PageCursor after, int size) {
+        checkUser(ownerId);
+        List<Booking> bookings = bookingRepository.findAllByRoleAfter(BookingRole.OWNER,
+                ownerId,
+                BookingState.valueOf(stateStr),
+                LocalDateTime.now(),
+                after.requireTimestamp(),
+                size);
+        log.debug("Отправлен список Booking, размер {}", bookings.size());
         return bookings.stream()
                 .map(Mapper::toDto)
                 .collect(Collectors.toList());
@@ -127,14 +141,23 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public BookingDto add(BookingRequestDto bookingRequestDto, long bookerId) {
         User booker = checkUser(bookerId);
-        Item item = itemRepository.findById(bookingRequestDto.getItemId())
+        Item item = itemRepository.findByIdForUpdate(bookingRequestDto.getItemId())
                         .orElseThrow(() -> new NotFoundException("item"));
 
         validation(bookingRequestDto, item, bookerId);
+        if (bookingRepository.existsByItemIdAndStateInAndStartBeforeAndEndAfter(item.getId(),
+                ACTIVE_STATES,
+                bookingRequestDto.getEnd(),
+                bookingRequestDto.getStart())) throw new AlreadyBusyException("item");
 
         Booking booking = Mapper.fromRequestDto(bookingRequestDto, booker, item);
-        log.debug("Добавлен новый Booking {}", booking);
-        return Mapper.toDto(bookingRepository.save(booking));
+        booking = bookingRepository.save(booking);
+        itemAvailabilityIndex.add(booking);
+        BookingDto result = Mapper.toDto(booking);
+        outboxService.record(OutboxEventType.BOOKING_CREATED, result.getId(), result);
+        bookingFeedHub.publish(item.getOwner().getId(), result);
+        log.debug("Добавлен новый Booking id = {} для Item id = {}", result.getId(), item.getId());
+        return result;
     }
 
     @Override
@@ -148,8 +171,25 @@ public class BookingServiceImpl implements BookingService {
         if (approved) {
             booking.setState(BookingStatus.APPROVED);
         } else booking.setState(BookingStatus.REJECTED);
-        log.debug("Статус Booking {} обновлен", booking);
-        return Mapper.toDto(bookingRepository.save(booking));
+        BookingDto result = Mapper.toDto(bookingRepository.save(booking));
+        itemDetailsCache.evict(booking.getItem().getId());
+        if (!approved) itemAvailabilityIndex.remove(booking.getItem().getId(), bookingId);
+        outboxService.record(approved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED, bookingId, result);
+        bookingFeedHub.publish(result.getBooker().getId(), result);
+        log.debug("Статус Booking id = {} обновлен на {}", bookingId, booking.getState());
+        return result;
+    }
+
+    /**
+     * Лента бронирований пользователя: владельцу приходят новые бронирования его вещей (WAITING),
+     * арендатору - подтверждение или отклонение его бронирований.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(long userId) {
+        checkUser(userId);
+        log.debug("Подписка на ленту бронирований пользователя id = {}", userId);
+        return bookingFeedHub.subscribe(userId);
     }
 
     private void validation(BookingRequestDto bookingRequestDto, Item item, long bookerId) {
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал бронирования вещи [start, end) для построения индекса занятости.
+ */
+@Value
+public class BookingInterval {
+
+    long itemId;
+    long bookingId;
+    LocalDateTime start;
+    LocalDateTime end;
+}
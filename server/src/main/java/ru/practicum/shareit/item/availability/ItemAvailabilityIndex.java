@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Индекс занятости вещей: для каждой вещи календарь незавершенных бронирований в статусах WAITING
+ * и APPROVED. Строится до запуска веб-сервера из таблицы бронирований, дальше его обновляют сервисы
+ * после коммита своих транзакций, поэтому запросы свободного времени не обращаются к БД. Завершившиеся
+ * бронирования раз в prune-interval удаляются из календарей, так что прошедшее время индекс считает
+ * свободным. Индекс локален для экземпляра сервера: бронирования, созданные другими экземплярами,
+ * он увидит только после перезапуска.
+ */
+@Slf4j
+@Component
+public class ItemAvailabilityIndex {
+
+    public static final Set<BookingStatus> BUSY_STATES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemCalendar> calendars = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ItemAvailabilityIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Вызывается до запуска веб-сервера и планировщика, когда изменений бронирований еще нет,
+     * поэтому содержимое индекса можно заменить целиком.
+     */
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, List<BookingInterval>> intervals = bookingRepository
+                .findIntervalsByStateInEndingAfter(BUSY_STATES, LocalDateTime.now()).stream()
+                .collect(Collectors.groupingBy(BookingInterval::getItemId));
+        Map<Long, ItemCalendar> loaded = new HashMap<>();
+        intervals.forEach((itemId, itemIntervals) -> loaded.put(itemId, ItemCalendar.of(itemIntervals)));
+        calendars.clear();
+        calendars.putAll(loaded);
+        log.debug("Индекс занятости построен, Item {}", calendars.size());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.availability.prune-interval}")
+    public void prune() {
+        prune(LocalDateTime.now());
+    }
+
+    /**
+     * Удаляет бронирования, закончившиеся к now, и опустевшие календари.
+     */
+    public void prune(LocalDateTime now) {
+        long time = ItemCalendar.micros(now);
+        calendars.keySet().forEach(itemId -> calendars.computeIfPresent(itemId, (id, calendar) -> {
+            ItemCalendar pruned = calendar.withoutEndedBy(time);
+            return pruned.isEmpty() ? null : pruned;
+        }));
+    }
+
+    public void add(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        long start = ItemCalendar.micros(booking.getStart());
+        long end = ItemCalendar.micros(booking.getEnd());
+        afterCommit(() -> calendars.compute(itemId, (id, calendar) ->
+                (calendar == null ? ItemCalendar.EMPTY : calendar).with(bookingId, start, end)));
+    }
+
+    public void remove(long itemId, long bookingId) {
+        afterCommit(() -> removeNow(itemId, List.of(bookingId)));
+    }
+
+    public void removeAll(Collection<BookingInterval> intervals) {
+        if (intervals.isEmpty()) return;
+        Map<Long, Set<Long>> bookingIds = intervals.stream()
+                .collect(Collectors.groupingBy(BookingInterval::getItemId,
+                        Collectors.mapping(BookingInterval::getBookingId, Collectors.toSet())));
+        afterCommit(() -> bookingIds.forEach(this::removeNow));
+    }
+
+    public void removeItems(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return;
+        Collection<Long> ids = new ArrayList<>(itemIds);
+        afterCommit(() -> ids.forEach(calendars::remove));
+    }
+
+    public void clear() {
+        afterCommit(calendars::clear);
+    }
+
+    /**
+     * Нет ли у вещи бронирований, пересекающихся с [from, to).
+     */
+    public boolean isFree(long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemCalendar calendar = calendars.get(itemId);
+        return calendar == null || calendar.isFree(ItemCalendar.micros(from), ItemCalendar.micros(to));
+    }
+
+    /**
+     * Интервалы занятости вещи внутри [from, to), пересекающиеся бронирования объединены.
+     */
+    public List<TimeSlotDto> busy(long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemCalendar calendar = calendars.get(itemId);
+        if (calendar == null) return new ArrayList<>();
+        return calendar.busy(ItemCalendar.micros(from), ItemCalendar.micros(to)).stream()
+                .map(slot -> new TimeSlotDto(ItemCalendar.time(slot[0]), ItemCalendar.time(slot[1])))
+                .collect(Collectors.toList());
+    }
+
+    private void removeNow(long itemId, Collection<Long> bookingIds) {
+        calendars.computeIfPresent(itemId, (id, calendar) -> {
+            ItemCalendar updated = calendar.without(bookingIds);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
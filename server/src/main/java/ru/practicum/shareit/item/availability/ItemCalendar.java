@@ -0,0 +1,157 @@
+package ru.practicum.shareit.item.availability;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Неизменяемый календарь занятости одной вещи. Бронирования хранятся в параллельных массивах,
+ * отсортированных по началу, рядом - объединенные непересекающиеся интервалы занятости,
+ * по которым запрос диапазона выполняется двоичным поиском. Время - микросекунды от эпохи.
+ * Любое изменение возвращает новый календарь, поэтому читатели не берут блокировок.
+ */
+final class ItemCalendar {
+
+    static final ItemCalendar EMPTY = new ItemCalendar(new long[0], new long[0], new long[0]);
+
+    private final long[] bookingIds;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] busyStarts;
+    private final long[] busyEnds;
+
+    private ItemCalendar(long[] bookingIds, long[] starts, long[] ends) {
+        this.bookingIds = bookingIds;
+        this.starts = starts;
+        this.ends = ends;
+
+        long[] mergedStarts = new long[starts.length];
+        long[] mergedEnds = new long[starts.length];
+        int size = 0;
+        for (int i = 0; i < starts.length; i++) {
+            if (size > 0 && starts[i] <= mergedEnds[size - 1]) {
+                mergedEnds[size - 1] = Math.max(mergedEnds[size - 1], ends[i]);
+            } else {
+                mergedStarts[size] = starts[i];
+                mergedEnds[size] = ends[i];
+                size++;
+            }
+        }
+        this.busyStarts = Arrays.copyOf(mergedStarts, size);
+        this.busyEnds = Arrays.copyOf(mergedEnds, size);
+    }
+
+    /**
+     * Календарь из бронирований одной вещи, отсортированных по началу.
+     */
+    static ItemCalendar of(List<BookingInterval> intervals) {
+        long[] ids = new long[intervals.size()];
+        long[] starts = new long[intervals.size()];
+        long[] ends = new long[intervals.size()];
+        for (int i = 0; i < intervals.size(); i++) {
+            BookingInterval interval = intervals.get(i);
+            ids[i] = interval.getBookingId();
+            starts[i] = micros(interval.getStart());
+            ends[i] = micros(interval.getEnd());
+        }
+        return new ItemCalendar(ids, starts, ends);
+    }
+
+    static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000;
+    }
+
+    static LocalDateTime time(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+
+    ItemCalendar with(long bookingId, long start, long end) {
+        ItemCalendar calendar = without(List.of(bookingId));
+        int size = calendar.bookingIds.length;
+        int position = 0;
+        while (position < size && calendar.starts[position] <= start) position++;
+
+        long[] ids = new long[size + 1];
+        long[] newStarts = new long[size + 1];
+        long[] newEnds = new long[size + 1];
+        copy(calendar, 0, ids, newStarts, newEnds, 0, position);
+        ids[position] = bookingId;
+        newStarts[position] = start;
+        newEnds[position] = end;
+        copy(calendar, position, ids, newStarts, newEnds, position + 1, size - position);
+        return new ItemCalendar(ids, newStarts, newEnds);
+    }
+
+    ItemCalendar without(Collection<Long> removedIds) {
+        long[] ids = new long[bookingIds.length];
+        long[] newStarts = new long[bookingIds.length];
+        long[] newEnds = new long[bookingIds.length];
+        int size = 0;
+        for (int i = 0; i < bookingIds.length; i++) {
+            if (removedIds.contains(bookingIds[i])) continue;
+            ids[size] = bookingIds[i];
+            newStarts[size] = starts[i];
+            newEnds[size] = ends[i];
+            size++;
+        }
+        if (size == bookingIds.length) return this;
+        if (size == 0) return EMPTY;
+        return new ItemCalendar(Arrays.copyOf(ids, size), Arrays.copyOf(newStarts, size), Arrays.copyOf(newEnds, size));
+    }
+
+    /**
+     * Календарь без бронирований, закончившихся к time.
+     */
+    ItemCalendar withoutEndedBy(long time) {
+        Set<Long> ended = new HashSet<>();
+        for (int i = 0; i < ends.length; i++) {
+            if (ends[i] <= time) ended.add(bookingIds[i]);
+        }
+        return ended.isEmpty() ? this : without(ended);
+    }
+
+    boolean isEmpty() {
+        return bookingIds.length == 0;
+    }
+
+    boolean isFree(long from, long to) {
+        int i = firstBusyEndingAfter(from);
+        return i == busyEnds.length || busyStarts[i] >= to;
+    }
+
+    /**
+     * Объединенные интервалы занятости, пересекающиеся с [from, to), обрезанные по его границам.
+     */
+    List<long[]> busy(long from, long to) {
+        List<long[]> result = new ArrayList<>();
+        for (int i = firstBusyEndingAfter(from); i < busyEnds.length && busyStarts[i] < to; i++) {
+            result.add(new long[]{Math.max(busyStarts[i], from), Math.min(busyEnds[i], to)});
+        }
+        return result;
+    }
+
+    private int firstBusyEndingAfter(long from) {
+        int low = 0;
+        int high = busyEnds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (busyEnds[middle] <= from) {
+                low = middle + 1;
+            } else high = middle;
+        }
+        return low;
+    }
+
+    private static void copy(ItemCalendar source, int sourcePosition,
+                             long[] ids, long[] starts, long[] ends, int position, int length) {
+        System.arraycopy(source.bookingIds, sourcePosition, ids, position, length);
+        System.arraycopy(source.starts, sourcePosition, starts, position, length);
+        System.arraycopy(source.ends, sourcePosition, ends, position, length);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Замена внешнего общего кэша для тестов и запуска в одном экземпляре.
+ * Как и сетевое хранилище, отдает копии, а не сохраненные объекты.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-cache.shared", havingValue = "memory")
+public class InMemorySharedItemDetailsCache implements SharedItemDetailsCache {
+
+    private final Map<Long, ItemDto> items = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<ItemDto> get(long itemId) {
+        return Optional.ofNullable(items.get(itemId)).map(ItemDetailsCache::copy);
+    }
+
+    @Override
+    public void put(ItemDto itemDto) {
+        items.put(itemDto.getId(), ItemDetailsCache.copy(itemDto));
+    }
+
+    @Override
+    public void evict(long itemId) {
+        items.remove(itemId);
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+    }
+}
@@ -0,0 +1,182 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Двухуровневый кэш карточки вещи с комментариями (без бронирований: они зависят от пользователя и времени).
+ * Сначала проверяется локальный Caffeine-кэш с ограничением по размеру и TTL, затем общий уровень,
+ * и только потом БД. Каждый вызов get отдает новую глубокую копию.
+ * <p>
+ * Удаление повторяется после коммита: до него параллельное чтение еще видит старое состояние в БД.
+ * Само по себе это не защищает от чтения, которое загрузило старое состояние до коммита, а положило
+ * его в кэш уже после повторного удаления, поэтому загрузка сверяется с номером поколения удалений
+ * этого экземпляра и не остается в кэше, если за время загрузки было удаление. Чтение на другом
+ * экземпляре этот номер не видит, поэтому после коммита удаление повторяется еще раз через
+ * repeat-evict-after. Локальные копии на других экземплярах не удаляются, они живут до истечения
+ * короткого expire-after-write.
+ */
+@Component
+public class ItemDetailsCache {
+
+    private static final String CACHE_NAME = "itemDetails";
+
+    private final Cache<Long, ItemDto> local;
+    private final SharedItemDetailsCache shared;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final AtomicLong generation = new AtomicLong();
+    private final Executor delayedEvictions;
+
+    @Autowired
+    public ItemDetailsCache(SharedItemDetailsCache shared,
+                            @Value("${shareit.item-cache.maximum-size}") long maximumSize,
+                            @Value("${shareit.item-cache.expire-after-write}") Duration expireAfterWrite,
+                            @Value("${shareit.item-cache.repeat-evict-after}") Duration repeatEvictAfter,
+                            MeterRegistry meterRegistry) {
+        this.shared = shared;
+        this.delayedEvictions = CompletableFuture.delayedExecutor(repeatEvictAfter.toMillis(), TimeUnit.MILLISECONDS);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, CACHE_NAME, Tags.of("tier", "local"));
+        this.sharedHits = sharedCounter(meterRegistry, "hit");
+        this.sharedMisses = sharedCounter(meterRegistry, "miss");
+    }
+
+    public ItemDto get(long itemId, LongFunction<ItemDto> loader) {
+        long stamp = generation.get();
+        ItemDto[] loaded = new ItemDto[1];
+        ItemDto itemDto = local.get(itemId, id -> loaded[0] = load(id, loader, stamp));
+        if (loaded[0] != null && generation.get() != stamp) {
+            local.asMap().remove(itemId, loaded[0]);
+        }
+        return copy(itemDto);
+    }
+
+    public void evict(long itemId) {
+        evictNow(itemId);
+        afterCommit(() -> {
+            evictNow(itemId);
+            delayedEvictions.execute(() -> evictNow(itemId));
+        });
+    }
+
+    public void evictAll(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return;
+        Collection<Long> ids = new ArrayList<>(itemIds);
+        ids.forEach(this::evictNow);
+        afterCommit(() -> {
+            ids.forEach(this::evictNow);
+            delayedEvictions.execute(() -> ids.forEach(this::evictNow));
+        });
+    }
+
+    public void clear() {
+        clearNow();
+        afterCommit(() -> {
+            clearNow();
+            delayedEvictions.execute(this::clearNow);
+        });
+    }
+
+    static ItemDto copy(ItemDto itemDto) {
+        return ItemDto.builder()
+                .id(itemDto.getId())
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .available(itemDto.getAvailable())
+                .requestId(itemDto.getRequestId())
+                .comments(itemDto.getComments() == null ? null : itemDto.getComments().stream()
+                        .map(ItemDetailsCache::copy)
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .lastBooking(copy(itemDto.getLastBooking()))
+                .nextBooking(copy(itemDto.getNextBooking()))
+                .ownerId(itemDto.getOwnerId())
+                .build();
+    }
+
+    private static CommentDto copy(CommentDto commentDto) {
+        return commentDto == null ? null : CommentDto.builder()
+                .id(commentDto.getId())
+                .text(commentDto.getText())
+                .authorName(commentDto.getAuthorName())
+                .created(commentDto.getCreated())
+                .build();
+    }
+
+    private static BookingDtoShort copy(BookingDtoShort booking) {
+        return booking == null ? null : new BookingDtoShort(booking.getId(), booking.getBookerId());
+    }
+
+    /**
+     * Загрузка кладется в общий уровень, только если за время загрузки на этом экземпляре не было удалений.
+     * Номер поколения проверяется после записи: удаление, начатое после проверки, само удалит запись.
+     */
+    private ItemDto load(long itemId, LongFunction<ItemDto> loader, long stamp) {
+        return shared.get(itemId)
+                .map(itemDto -> {
+                    sharedHits.increment();
+                    return itemDto;
+                })
+                .orElseGet(() -> {
+                    sharedMisses.increment();
+                    ItemDto itemDto = loader.apply(itemId);
+                    shared.put(itemDto);
+                    if (generation.get() != stamp) shared.evict(itemId);
+                    return itemDto;
+                });
+    }
+
+    private void evictNow(long itemId) {
+        generation.incrementAndGet();
+        local.invalidate(itemId);
+        shared.evict(itemId);
+    }
+
+    private void clearNow() {
+        generation.incrementAndGet();
+        local.invalidateAll();
+        shared.clear();
+    }
+
+    private static Counter sharedCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.gets")
+                .tags("cache", CACHE_NAME, "tier", "shared", "result", result)
+                .register(meterRegistry);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
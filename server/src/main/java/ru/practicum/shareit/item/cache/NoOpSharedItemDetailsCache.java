@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.Optional;
+
+/**
+ * Общий уровень отключен: карточки кэшируются только локально.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-cache.shared", havingValue = "none", matchIfMissing = true)
+public class NoOpSharedItemDetailsCache implements SharedItemDetailsCache {
+
+    @Override
+    public Optional<ItemDto> get(long itemId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(ItemDto itemDto) {
+    }
+
+    @Override
+    public void evict(long itemId) {
+    }
+
+    @Override
+    public void clear() {
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.cache;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.Optional;
+
+/**
+ * Общий для всех экземпляров сервера уровень кэша карточек вещей.
+ * Реализация должна хранить копии: переданный и возвращенный ItemDto вызывающий код может изменять.
+ */
+public interface SharedItemDetailsCache {
+
+    Optional<ItemDto> get(long itemId);
+
+    void put(ItemDto itemDto);
+
+    void evict(long itemId);
+
+    void clear();
+}
@@ -1,13 +1,38 @@
 package ru.practicum.shareit.item.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findAllByItemIdOrderByCreated(long itemId);
 
+    @Query("select c " +
+           "from Comment as c " +
+           "join fetch c.author " +
+           "where c.item.id in ?1 " +
+           "order by c.created")
+    List<Comment> findAllByItemIds(Collection<Long> itemIds);
+
+    @Query("select distinct c.item.id " +
+           "from Comment as c " +
+           "where c.author.id = ?1")
+    List<Long> findItemIdsByAuthorId(long authorId);
+
     void deleteAllByItemId(long itemId);
+
+    @Modifying
+    @Query("delete from Comment as c " +
+           "where c.author.id = ?1")
+    int deleteAllByAuthorId(long authorId);
+
+    @Modifying
+    @Query("delete from Comment as c " +
+           "where c.item.id in (select i.id from Item as i where i.owner.id = ?1)")
+    int deleteAllByItemOwnerId(long ownerId);
 }
@@ -2,6 +2,8 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,8 +15,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -39,19 +45,34 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDto> getAll(@RequestHeader(HEADER) long userId,
-                                @RequestParam int from,
-                                @RequestParam int size) {
+    public ResponseEntity<List<ItemDto>> getAll(@RequestHeader(HEADER) long userId,
+                                                @RequestParam int from,
+                                                @RequestParam int size,
+                                                @RequestParam(required = false) String after) {
         log.info("Получен запрос GET /items");
-        return itemService.getAll(userId, from, size);
+        List<ItemDto> result = after == null
+                ? itemService.getAll(userId, from, size)
+                : itemService.getAll(userId, PageCursor.decode(after), size);
+        return PageCursor.toResponse(result, size, item -> PageCursor.of(item.getId()));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос GET /items/{}/availability", itemId);
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @GetMapping("/search")
     public List<ItemDto> searchByText(@RequestParam String text,
                                       @RequestParam int from,
-                                      @RequestParam int size) {
+                                      @RequestParam int size,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         log.info("Получен запрос GET /items/search?text={}", text);
-        return itemService.searchByText(text.toLowerCase(), from, size);
+        if (start == null && end == null) return itemService.searchByText(text.toLowerCase(), from, size);
+        return itemService.searchAvailable(text.toLowerCase(), start, end, from, size);
     }
 
     @PostMapping
@@ -61,6 +82,13 @@ public class ItemController {
         return itemService.add(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> addAll(@RequestBody List<ItemDto> itemDtos,
+                                @RequestHeader(HEADER) long userId) {
+        log.info("Получен запрос POST /items/batch, размер {}", itemDtos.size());
+        return itemService.addAll(itemDtos, userId);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@PathVariable long itemId,
                                  @RequestBody CommentDto commentDto,
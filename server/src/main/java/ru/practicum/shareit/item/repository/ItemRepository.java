@@ -2,20 +2,72 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select i " +
            "from Item as i " +
            "where i.available = true and " +
            "(lower(i.name) like lower(concat('%', ?1, '%')) or " +
-           "lower(i.description) like lower(concat('%', ?1, '%')))")
+           "lower(i.description) like lower(concat('%', ?1, '%'))) " +
+           "order by case when lower(i.name) like lower(concat('%', ?1, '%')) then 0 else 1 end, i.id")
     List<Item> searchByText(String text, Pageable pageable);
 
+    @Query("select i " +
+           "from Item as i " +
+           "where i.available = true and " +
+           "(lower(i.name) like lower(concat('%', ?1, '%')) or " +
+           "lower(i.description) like lower(concat('%', ?1, '%'))) and " +
+           "not exists (select b.id from Booking as b " +
+           "where b.item = i and b.state in ?2 and b.start < ?4 and b.end > ?3) " + //overlap with [start, end)
+           "order by case when lower(i.name) like lower(concat('%', ?1, '%')) then 0 else 1 end, i.id")
+    List<Item> searchFreeByText(String text,
+                                Collection<BookingStatus> states,
+                                LocalDateTime start,
+                                LocalDateTime end,
+                                Pageable pageable);
+
     List<Item> findAllByOwnerId(long userId, Pageable pageable);
 
-    List<Item> findAllByItemRequestId(long requestId);
+    List<Item> findAllByOwnerIdAndIdGreaterThan(long userId, long afterId, Pageable pageable);
+
+    @Query("select i " +
+           "from Item as i " +
+           "where i.itemRequest.id in ?1")
+    List<Item> findAllByItemRequestIds(Collection<Long> requestIds);
+
+    /**
+     * Блокирует строку вещи до конца транзакции: бронирования одной вещи проверяются
+     * на пересечение и сохраняются строго по очереди, в том числе между экземплярами сервера.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i " +
+           "from Item as i " +
+           "where i.id = ?1")
+    Optional<Item> findByIdForUpdate(long itemId);
+
+    @Query("select i.id " +
+           "from Item as i " +
+           "where i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(long ownerId);
+
+    @Query("select i.id " +
+           "from Item as i " +
+           "where i.itemRequest.id in (select r.id from ItemRequest as r where r.requester.id = ?1)")
+    List<Long> findIdsByRequesterId(long requesterId);
+
+    @Modifying
+    @Query("delete from Item as i " +
+           "where i.owner.id = ?1")
+    int deleteAllByOwnerId(long ownerId);
 }
\ No newline at end of file
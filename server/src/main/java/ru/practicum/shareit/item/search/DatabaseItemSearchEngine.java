@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.PaginationAndSortParams;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Поиск средствами БД. В Postgres запрос обслуживается триграммными GIN-индексами
+ * из schema-postgresql.sql, поэтому собственный индекс поддерживать не нужно.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    public DatabaseItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return itemRepository.searchByText(text, PaginationAndSortParams.getPageable(from, size));
+    }
+
+    /**
+     * Занятость проверяется в том же запросе условием not exists по таблице бронирований
+     * (индекс ix_bookings_item_id_date_start), поэтому БД читает только нужную страницу
+     * свободных вещей, а не все совпадения по тексту.
+     */
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return itemRepository.searchFreeByText(text, ItemAvailabilityIndex.BUSY_STATES, start, end,
+                PaginationAndSortParams.getPageable(from, size));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void indexAll(Collection<Item> items) {
+    }
+
+    @Override
+    public void remove(long itemId) {
+    }
+
+    @Override
+    public void removeAll(Collection<Long> itemIds) {
+    }
+
+    @Override
+    public void clear() {
+    }
+}
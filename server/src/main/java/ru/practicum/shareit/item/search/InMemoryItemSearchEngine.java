@@ -0,0 +1,269 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Встроенный триграммный инвертированный индекс по названию и описанию доступных вещей.
+ * Кандидаты берутся из пересечения списков вхождений триграмм запроса и проверяются на
+ * вхождение подстроки, так что семантика совпадает с поиском по like '%text%'.
+ * Запросы короче трех символов ищутся по спискам вхождений всех одно- и двухсимвольных подстрок.
+ * Совпадения по названию ранжируются выше совпадений только по описанию.
+ * Индекс строится до запуска веб-сервера, изменения вещей применяются к нему после коммита транзакции.
+ * Индекс локален для экземпляра сервера.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public InMemoryItemSearchEngine(ItemRepository itemRepository, ItemAvailabilityIndex itemAvailabilityIndex) {
+        this.itemRepository = itemRepository;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            items.stream()
+                    .map(Document::of)
+                    .filter(Objects::nonNull)
+                    .forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Поисковый индекс построен, проиндексировано Item {}", documents.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return search(text, id -> true, from, size);
+    }
+
+    /**
+     * Занятость проверяется по индексу занятости, без запросов к таблице бронирований.
+     */
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return search(text, id -> itemAvailabilityIndex.isFree(id, start, end), from, size);
+    }
+
+    /**
+     * Поиск с дополнительным условием на id вещи: from и size отсчитываются по вещам, прошедшим
+     * фильтр. Фильтр проверяется после ранжирования, по одному кандидату за раз, поэтому для
+     * вещей за пределами первых from + size подходящих он не вызывается.
+     */
+    public List<Item> search(String text, LongPredicate filter, int from, int size) {
+        String query = text.toLowerCase();
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = candidates(query).stream()
+                    .map(documents::get)
+                    .filter(document -> document.matches(query))
+                    .sorted(Comparator.comparing((Document document) -> !document.name.contains(query))
+                            .thenComparingLong(document -> document.id))
+                    .filter(document -> filter.test(document.id))
+                    .skip(from)
+                    .limit(size)
+                    .map(document -> document.id)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.isEmpty()) return new ArrayList<>();
+
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        long itemId = item.getId();
+        Document document = Document.of(item);
+        afterCommit(() -> write(() -> {
+            delete(itemId);
+            if (document != null) add(document);
+        }));
+    }
+
+    @Override
+    public void indexAll(Collection<Item> items) {
+        if (items.isEmpty()) return;
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Document> added = items.stream()
+                .map(Document::of)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        afterCommit(() -> write(() -> {
+            itemIds.forEach(this::delete);
+            added.forEach(this::add);
+        }));
+    }
+
+    @Override
+    public void remove(long itemId) {
+        afterCommit(() -> write(() -> delete(itemId)));
+    }
+
+    @Override
+    public void removeAll(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return;
+        Collection<Long> ids = new ArrayList<>(itemIds);
+        afterCommit(() -> write(() -> ids.forEach(this::delete)));
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(() -> write(() -> {
+            postings.clear();
+            documents.clear();
+        }));
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Set<Long> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) return postings.getOrDefault(query, Set.of());
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) return Set.of();
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void add(Document document) {
+        documents.put(document.id, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.id);
+        }
+    }
+
+    private void delete(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) return;
+        for (String gram : document.grams()) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(itemId);
+            if (ids.isEmpty()) postings.remove(gram);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    /**
+     * Все подстроки длиной от одного до GRAM_LENGTH символов.
+     */
+    private static Set<String> grams(String value) {
+        Set<String> result = new HashSet<>();
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= value.length(); i++) {
+                result.add(value.substring(i, i + length));
+            }
+        }
+        return result;
+    }
+
+    private static class Document {
+        private final long id;
+        private final String name;
+        private final String description;
+
+        Document(long id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+
+        /**
+         * Снимок полей вещи на момент вызова, null - вещь недоступна и в индекс не попадает.
+         */
+        static Document of(Item item) {
+            if (!Boolean.TRUE.equals(item.getAvailable())) return null;
+            return new Document(item.getId(), lower(item.getName()), lower(item.getDescription()));
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> result = InMemoryItemSearchEngine.grams(name);
+            result.addAll(InMemoryItemSearchEngine.grams(description));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * Поиск вещей без бронирований в статусах WAITING и APPROVED, пересекающихся с [start, end):
+     * from и size отсчитываются по свободным вещам.
+     */
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    void index(Item item);
+
+    /**
+     * Индексирует добавленные пакетом вещи одним изменением индекса после коммита.
+     */
+    void indexAll(Collection<Item> items);
+
+    void remove(long itemId);
+
+    void removeAll(Collection<Long> itemIds);
+
+    void clear();
+}
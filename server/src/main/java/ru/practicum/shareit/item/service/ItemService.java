@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.util.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -11,10 +14,18 @@ public interface ItemService {
 
     List<ItemDto> getAll(long userId, int from, int size);
 
+    List<ItemDto> getAll(long userId, PageCursor after, int size);
+
     List<ItemDto> searchByText(String text, int from, int size);
 
+    List<ItemDto> searchAvailable(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
     ItemDto add(ItemDto itemDto, long userId);
 
+    List<ItemDto> addAll(List<ItemDto> itemDtos, long userId);
+
     CommentDto addComment(long itemId, long userId, CommentDto commentDto);
 
     ItemDto update(ItemDto itemDto, long userId);
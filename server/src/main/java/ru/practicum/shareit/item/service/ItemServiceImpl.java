@@ -10,23 +10,35 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.Mapper;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PaginationAndSortParams;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,34 +46,46 @@ import java.util.stream.Collectors;
 @Transactional
 public class ItemServiceImpl implements ItemService {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final OutboxService outboxService;
 
     @Autowired
     public ItemServiceImpl(ItemRepository itemRepository,
                            UserRepository userRepository,
                            BookingRepository bookingRepository,
                            CommentRepository commentRepository,
-                           ItemRequestRepository itemRequestRepository) {
+                           ItemRequestRepository itemRequestRepository,
+                           ItemSearchEngine itemSearchEngine,
+                           ItemDetailsCache itemDetailsCache,
+                           ItemAvailabilityIndex itemAvailabilityIndex,
+                           OutboxService outboxService) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemDetailsCache = itemDetailsCache;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
+        this.outboxService = outboxService;
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemDto getById(long itemId, long userId) {
-        ItemDto result = Mapper.toDto(itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("item")));
+        ItemDto result = itemDetailsCache.get(itemId, this::loadDetails);
         LocalDateTime timestamp = LocalDateTime.now();
         fillByBooking(result, timestamp, userId);
-        fillByComments(result, userId);
-        log.debug("Отправлен ItemDto {}", result);
+        log.debug("Отправлен ItemDto id = {}", result.getId());
         return result;
     }
 
@@ -73,35 +97,130 @@ public class ItemServiceImpl implements ItemService {
         LocalDateTime timestamp = LocalDateTime.now();
         List<ItemDto> result = itemRepository.findAllByOwnerId(userId, pageRequest).stream()
                 .map(Mapper::toDto)
-                .peek(itemDto -> {
-                    fillByBooking(itemDto, timestamp, userId);
-                    fillByComments(itemDto, userId);
-                })
                 .collect(Collectors.toList());
-        log.debug("Отправлен список ItemDto {}", result);
+        fillByBookings(result, timestamp);
+        fillByComments(result);
+        log.debug("Отправлен список ItemDto, размер {}", result.size());
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getAll(long userId, PageCursor after, int size) {
+        checkUser(userId);
+        Pageable pageRequest = PaginationAndSortParams.getPageableAsc(0, size, "id");
+        LocalDateTime timestamp = LocalDateTime.now();
+        List<ItemDto> result = itemRepository.findAllByOwnerIdAndIdGreaterThan(userId, after.getId(), pageRequest).stream()
+                .map(Mapper::toDto)
+                .collect(Collectors.toList());
+        fillByBookings(result, timestamp);
+        fillByComments(result);
+        log.debug("Отправлен список ItemDto, размер {}", result.size());
         return result;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> searchByText(String text, int from, int size) {
-        Pageable pageRequest = PaginationAndSortParams.getPageable(from, size);
         if (text.isBlank()) return new ArrayList<>();
-        List<ItemDto> result = itemRepository.searchByText(text, pageRequest).stream()
+        List<ItemDto> result = itemSearchEngine.search(text, from, size).stream()
                 .map(Mapper::toDto)
                 .collect(Collectors.toList());
-        log.debug("Отправлен список ItemDto {}", result);
+        log.debug("Отправлен список ItemDto, размер {}", result.size());
         return result;
     }
 
+    /**
+     * Поиск вещей, свободных на всем интервале [start, end). Занятость проверяет поисковый движок:
+     * встроенный по индексу занятости, поиск средствами БД в том же запросе.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchAvailable(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if (start == null || end == null || !start.isBefore(end)) throw new ValidationException("time");
+        if (text.isBlank()) return new ArrayList<>();
+        LocalDateTime freeFrom = start.truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime freeTo = end.truncatedTo(ChronoUnit.MICROS);
+        List<ItemDto> result = itemSearchEngine.searchFree(text, freeFrom, freeTo, from, size).stream()
+                .map(Mapper::toDto)
+                .collect(Collectors.toList());
+        log.debug("Отправлен список ItemDto, размер {}", result.size());
+        return result;
+    }
+
+    /**
+     * Свободные окна и интервалы занятости вещи в [from, to) по индексу занятости, без запросов
+     * к таблице бронирований. Границы округляются до микросекунд, как хранится время в БД.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) throw new ValidationException("time");
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("item"));
+        LocalDateTime start = from.truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.MICROS);
+        List<TimeSlotDto> busy = itemAvailabilityIndex.busy(itemId, start, end);
+        List<TimeSlotDto> free = new ArrayList<>();
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            LocalDateTime freeStart = start;
+            for (TimeSlotDto slot : busy) {
+                if (freeStart.isBefore(slot.getStart())) free.add(new TimeSlotDto(freeStart, slot.getStart()));
+                freeStart = slot.getEnd();
+            }
+            if (freeStart.isBefore(end)) free.add(new TimeSlotDto(freeStart, end));
+        }
+        log.debug("Отправлена занятость Item id = {}, свободных окон {}, занятых {}", itemId, free.size(), busy.size());
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(start)
+                .to(end)
+                .available(Boolean.TRUE.equals(item.getAvailable()))
+                .free(free)
+                .busy(busy)
+                .build();
+    }
+
     @Override
     public ItemDto add(ItemDto itemDto, long userId) {
         User user = checkUser(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(itemDto.getRequestId()).orElse(null);
         Item item = Mapper.fromDto(itemDto, user);
         if (itemRequest != null) item.setItemRequest(itemRequest);
-        ItemDto result = Mapper.toDto(itemRepository.save(item));
-        log.debug("Отправлен ItemDto {}", result);
+        item = itemRepository.save(item);
+        itemSearchEngine.index(item);
+        ItemDto result = Mapper.toDto(item);
+        outboxService.record(OutboxEventType.ITEM_CREATED, result.getId(), result);
+        log.debug("Отправлен ItemDto id = {}", result.getId());
+        return result;
+    }
+
+    /**
+     * Добавляет вещи пользователя одной транзакцией: заявки загружаются одним запросом, id выдаются
+     * из последовательности без обращения к базе на каждую вещь, вставки уходят пакетами JDBC.
+     */
+    @Override
+    public List<ItemDto> addAll(List<ItemDto> itemDtos, long userId) {
+        if (itemDtos.size() > MAX_BATCH_SIZE) throw new ValidationException("size");
+        User user = checkUser(userId);
+        Map<Long, ItemRequest> itemRequests = itemRequestRepository.findAllById(itemDtos.stream()
+                        .map(ItemDto::getRequestId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        for (ItemDto itemDto : itemDtos) {
+            Item item = Mapper.fromDto(itemDto, user);
+            item.setId(0);
+            item.setItemRequest(itemRequests.get(itemDto.getRequestId()));
+            items.add(item);
+        }
+        items = itemRepository.saveAll(items);
+        itemSearchEngine.indexAll(items);
+        List<ItemDto> result = items.stream()
+                .map(Mapper::toDto)
+                .collect(Collectors.toList());
+        result.forEach(itemDto -> outboxService.record(OutboxEventType.ITEM_CREATED, itemDto.getId(), itemDto));
+        log.debug("Добавлен список Item, размер {}", result.size());
         return result;
     }
 
@@ -113,8 +232,11 @@ public class ItemServiceImpl implements ItemService {
         Comment comment = Mapper.fromDto(commentDto, itemId);
         comment.setAuthor(checkUser(userId));
         comment.setCreated(timestamp);
-        log.debug("Добавлен Comment {}", comment);
-        return Mapper.toDto(commentRepository.save(comment));
+        CommentDto result = Mapper.toDto(commentRepository.save(comment));
+        itemDetailsCache.evict(itemId);
+        outboxService.record(OutboxEventType.COMMENT_ADDED, itemId, result);
+        log.debug("Добавлен Comment id = {} к Item id = {}", result.getId(), itemId);
+        return result;
     }
 
     @Override
@@ -131,8 +253,12 @@ public class ItemServiceImpl implements ItemService {
             if (updatingItem.getDescription() == null) updatingItem.setDescription(item.getDescription());
             if (updatingItem.getAvailable() == null) updatingItem.setAvailable(item.getAvailable());
 
-            ItemDto result = Mapper.toDto(itemRepository.save(updatingItem));
-            log.debug("Отправлен ItemDto {}", result);
+            updatingItem = itemRepository.save(updatingItem);
+            itemSearchEngine.index(updatingItem);
+            itemDetailsCache.evict(itemId);
+            ItemDto result = Mapper.toDto(updatingItem);
+            outboxService.record(OutboxEventType.ITEM_UPDATED, itemId, result);
+            log.debug("Отправлен ItemDto id = {}", result.getId());
             return result;
         }
         throw new NotFoundException("owner id");
@@ -146,6 +272,9 @@ public class ItemServiceImpl implements ItemService {
         if (item.getOwner().getId() == userDto.getId()) {
             itemRepository.deleteById(itemId);
             commentRepository.deleteAllByItemId(itemId);
+            itemSearchEngine.remove(itemId);
+            itemDetailsCache.evict(itemId);
+            itemAvailabilityIndex.removeItems(List.of(itemId));
             log.debug("Item с id = {} удален", itemId);
         } else throw new ValidationException("owner id");
     }
@@ -154,6 +283,9 @@ public class ItemServiceImpl implements ItemService {
     public void deleteAll() {
         itemRepository.deleteAll();
         commentRepository.deleteAll();
+        itemSearchEngine.clear();
+        itemDetailsCache.clear();
+        itemAvailabilityIndex.clear();
         log.debug("Все элементы Item удалены");
     }
 
@@ -171,12 +303,42 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private void fillByComments(ItemDto itemDto, long userId) {
-        long itemId = itemDto.getId();
+    private void fillByBookings(List<ItemDto> itemsDto, LocalDateTime timestamp) {
+        if (itemsDto.isEmpty()) return;
+        Map<Long, ItemDto> itemsById = itemsDto.stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+
+        for (Booking booking : bookingRepository
+                .findLastAndNextByItemIds(itemsById.keySet(), timestamp, BookingStatus.REJECTED)) {
+            ItemDto itemDto = itemsById.get(booking.getItem().getId());
+            if (booking.getStart().isAfter(timestamp)) {
+                if (itemDto.getNextBooking() == null) itemDto.setNextBooking(Mapper.toShortDto(booking));
+            } else if (itemDto.getLastBooking() == null) itemDto.setLastBooking(Mapper.toShortDto(booking));
+        }
+    }
+
+    private void fillByComments(List<ItemDto> itemsDto) {
+        if (itemsDto.isEmpty()) return;
+        Map<Long, List<CommentDto>> commentsByItemId = new HashMap<>();
+        for (ItemDto itemDto : itemsDto) {
+            List<CommentDto> commentsDto = new ArrayList<>();
+            itemDto.setComments(commentsDto);
+            commentsByItemId.put(itemDto.getId(), commentsDto);
+        }
+
+        for (Comment comment : commentRepository.findAllByItemIds(commentsByItemId.keySet())) {
+            commentsByItemId.get(comment.getItem().getId()).add(Mapper.toDto(comment));
+        }
+    }
+
+    private ItemDto loadDetails(long itemId) {
+        ItemDto itemDto = Mapper.toDto(itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("item")));
         List<CommentDto> commentsDto = commentRepository.findAllByItemIdOrderByCreated(itemId).stream()
                 .map(Mapper::toDto)
                 .collect(Collectors.toList());
         itemDto.setComments(commentsDto);
+        return itemDto;
     }
 
     private User checkUser(long userId) {
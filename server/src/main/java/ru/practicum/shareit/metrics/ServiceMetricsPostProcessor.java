@@ -0,0 +1,64 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Оборачивает каждый бин с аннотацией @Service таймером shareit.service с тегами service, method и exception.
+ * Совет добавляется перед транзакционным, поэтому в замер входит и фиксация транзакции.
+ */
+public class ServiceMetricsPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    public static final String METRIC = "shareit.service";
+
+    public ServiceMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true),
+                new TimingInterceptor(registry));
+        setBeforeExistingAdvisors(true);
+    }
+
+    private static class TimingInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> registryProvider;
+        private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+        TimingInterceptor(ObjectProvider<MeterRegistry> registryProvider) {
+            this.registryProvider = registryProvider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MeterRegistry registry = registryProvider.getObject();
+            Timer.Sample sample = Timer.start(registry);
+            try {
+                Object result = invocation.proceed();
+                sample.stop(timers.computeIfAbsent(invocation.getMethod(), method -> timer(registry, invocation, "none")));
+                return result;
+            } catch (Throwable e) {
+                sample.stop(timer(registry, invocation, e.getClass().getSimpleName()));
+                throw e;
+            }
+        }
+
+        private static Timer timer(MeterRegistry registry, MethodInvocation invocation, String exception) {
+            return Timer.builder(METRIC)
+                    .description("Время выполнения методов сервисов")
+                    .tag("service", ClassUtils.getUserClass(invocation.getThis()).getSimpleName())
+                    .tag("method", invocation.getMethod().getName())
+                    .tag("exception", exception)
+                    .register(registry);
+        }
+    }
+}
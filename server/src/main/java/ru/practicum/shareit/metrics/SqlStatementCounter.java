@@ -0,0 +1,33 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы, подготовленные Hibernate в текущем потоке между start() и finish().
+ * Вне окна подсчета ничего не делает, поэтому подключается ко всей фабрике сессий.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) count[0]++;
+        return sql;
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * @return число запросов с момента start() или -1, если подсчет в этом потоке не начинался
+     */
+    public static int finish() {
+        int[] count = COUNT.get();
+        if (count == null) return -1;
+        COUNT.remove();
+        return count[0];
+    }
+}
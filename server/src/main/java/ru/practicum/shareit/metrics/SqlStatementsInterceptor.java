@@ -0,0 +1,63 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Записывает число SQL-запросов за HTTP-запрос в shareit.sql.statements с тегами method и uri.
+ * Рост числа запросов при том же uri - признак N+1; превышение порога дополнительно пишется в лог.
+ * Для потоковых ответов учитываются запросы до начала асинхронной записи тела.
+ */
+@Slf4j
+public class SqlStatementsInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String METRIC = "shareit.sql.statements";
+
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    public SqlStatementsInterceptor(MeterRegistry registry, int warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) SqlStatementCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request);
+    }
+
+    private void record(HttpServletRequest request) {
+        int count = SqlStatementCounter.finish();
+        if (count < 0) return;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder(METRIC)
+                .description("Число SQL-запросов за HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50)
+                .register(registry)
+                .record(count);
+        if (count > warnThreshold) {
+            log.warn("{} {} выполнил {} SQL-запросов", request.getMethod(), uri, count);
+        }
+    }
+}
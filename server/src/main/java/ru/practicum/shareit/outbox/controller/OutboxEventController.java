@@ -0,0 +1,30 @@
+package ru.practicum.shareit.outbox.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.sink.OutboxEventStream;
+
+@RestController
+@RequestMapping("/events")
+@Slf4j
+public class OutboxEventController {
+
+    private final OutboxEventStream outboxEventStream;
+
+    @Autowired
+    public OutboxEventController(OutboxEventStream outboxEventStream) {
+        this.outboxEventStream = outboxEventStream;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("Получен запрос GET /events, Last-Event-ID {}", lastEventId);
+        return outboxEventStream.subscribe(lastEventId);
+    }
+}
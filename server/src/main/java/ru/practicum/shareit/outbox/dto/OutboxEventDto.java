@@ -0,0 +1,29 @@
+package ru.practicum.shareit.outbox.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Опубликованное событие изменения. payload - JSON DTO измененной сущности на момент изменения,
+ * он вставляется в ответ как есть.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class OutboxEventDto {
+    private long id;
+    private OutboxEventType type;
+    private long aggregateId;
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime created;
+}
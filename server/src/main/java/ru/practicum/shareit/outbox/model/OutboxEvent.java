@@ -0,0 +1,33 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "outbox")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", allocationSize = 1)
+    private long id;
+    @Column(name = "event_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType type;
+    @Column(name = "aggregate_id", nullable = false)
+    private long aggregateId;
+    @Column(nullable = false)
+    private String payload;
+    @Column(nullable = false)
+    private LocalDateTime created;
+}
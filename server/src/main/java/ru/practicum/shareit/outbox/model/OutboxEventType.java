@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox.model;
+
+/**
+ * Тип события изменения. aggregateId события - id бронирования, вещи или запроса по префиксу типа,
+ * для COMMENT_ADDED - id вещи.
+ */
+public enum OutboxEventType {
+    BOOKING_CREATED, BOOKING_APPROVED, BOOKING_REJECTED, ITEM_CREATED, ITEM_UPDATED, COMMENT_ADDED, REQUEST_CREATED
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findAllByCreatedBeforeOrderById(LocalDateTime created, Pageable pageable);
+
+    @Modifying
+    @Query("delete from OutboxEvent as e " +
+           "where e.id in ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
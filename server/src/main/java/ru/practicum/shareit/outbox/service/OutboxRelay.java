@@ -0,0 +1,92 @@
+package ru.practicum.shareit.outbox.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+import ru.practicum.shareit.util.Mapper;
+import ru.practicum.shareit.util.PaginationAndSortParams;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Раз в shareit.outbox.relay-interval мс забирает события из outbox пачками по
+ * shareit.outbox.batch-size в порядке id, передает каждую пачку всем OutboxSink и удаляет ее
+ * в той же транзакции. Если получатель упал, пачка остается и будет отправлена повторно
+ * (доставка "хотя бы один раз").
+ * <p>
+ * Id событий выдает последовательность с шагом 1 при вставке, но транзакции фиксируются не в
+ * порядке id: событие с меньшим id может стать видимым после уже опубликованного большего, и
+ * подписчик, продолжающий с Last-Event-ID, его потеряет. Поэтому relay берет только события
+ * старше shareit.outbox.visibility-window - за это время успевают зафиксироваться транзакции,
+ * начавшиеся раньше. Relay рассчитан на один экземпляр сервера и включается на нем
+ * shareit.outbox.relay.enabled=true.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration visibilityWindow;
+
+    @Autowired
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       List<OutboxSink> sinks,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${shareit.outbox.batch-size}") int batchSize,
+                       @Value("${shareit.outbox.visibility-window}") Duration visibilityWindow) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.visibilityWindow = visibilityWindow;
+    }
+
+    /**
+     * Публикует все накопленные события и возвращает их число.
+     */
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay-interval}")
+    public synchronized int relay() {
+        int total = 0;
+        LocalDateTime visibleBefore = LocalDateTime.now().minus(visibilityWindow);
+        try {
+            int published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch(visibleBefore));
+                total += published;
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось опубликовать события outbox", e);
+        }
+        if (total > 0) log.debug("Опубликовано событий outbox {}", total);
+        return total;
+    }
+
+    private int publishBatch(LocalDateTime visibleBefore) {
+        List<OutboxEvent> events = outboxRepository.findAllByCreatedBeforeOrderById(visibleBefore,
+                PaginationAndSortParams.getPageable(0, batchSize));
+        if (events.isEmpty()) return 0;
+        List<OutboxEventDto> batch = events.stream()
+                .map(Mapper::toDto)
+                .collect(Collectors.toList());
+        sinks.forEach(sink -> sink.publish(batch));
+        outboxRepository.deleteAllByIdIn(batch.stream()
+                .map(OutboxEventDto::getId)
+                .collect(Collectors.toList()));
+        return events.size();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.outbox.sink;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Последние shareit.outbox.memory.max-events опубликованных событий в памяти процесса, для тестов.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int maxEvents;
+    private final Deque<OutboxEventDto> events = new ArrayDeque<>();
+
+    @Autowired
+    public InMemoryOutboxSink(@Value("${shareit.outbox.memory.max-events}") int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEventDto> batch) {
+        for (OutboxEventDto event : batch) {
+            events.addLast(event);
+            if (events.size() > maxEvents) events.removeFirst();
+        }
+    }
+
+    public synchronized List<OutboxEventDto> events() {
+        return new ArrayList<>(events);
+    }
+}
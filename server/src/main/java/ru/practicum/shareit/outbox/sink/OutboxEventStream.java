@@ -0,0 +1,153 @@
+package ru.practicum.shareit.outbox.sink;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Поток событий для подписчиков GET /events (server-sent events). Последние
+ * shareit.outbox.stream.replay-size событий хранятся, чтобы переподключившийся клиент получил
+ * пропущенные события после Last-Event-ID. Пачка попадает в поток после коммита транзакции relay,
+ * удалившей ее из outbox. У каждого подписчика своя очередь на replay-size + buffer-size событий,
+ * ее разбирает отдельный виртуальный поток, поэтому медленный клиент не задерживает relay и других
+ * подписчиков. Если очередь переполнена, подписчик отключается и переподключается с Last-Event-ID.
+ */
+@Slf4j
+@Component
+public class OutboxEventStream implements OutboxSink {
+
+    private final long timeout;
+    private final int replaySize;
+    private final int bufferSize;
+    private final Deque<OutboxEventDto> recent = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-stream-", 0).factory());
+
+    @Autowired
+    public OutboxEventStream(@Value("${shareit.outbox.stream.timeout}") Duration timeout,
+                             @Value("${shareit.outbox.stream.replay-size}") int replaySize,
+                             @Value("${shareit.outbox.stream.buffer-size}") int bufferSize) {
+        this.timeout = timeout.toMillis();
+        this.replaySize = replaySize;
+        this.bufferSize = bufferSize;
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (this) {
+            if (lastEventId != null) {
+                for (OutboxEventDto event : recent) {
+                    if (event.getId() > lastEventId) subscriber.offer(event);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        log.debug("Подписчиков на события {}", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Только ставит события в очереди подписчиков, запись в соединения идет в их потоках.
+     */
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        afterCommit(() -> {
+            synchronized (this) {
+                for (OutboxEventDto event : events) {
+                    recent.addLast(event);
+                    if (recent.size() > replaySize) recent.removeFirst();
+                }
+                for (Subscriber subscriber : subscribers) {
+                    events.forEach(subscriber::offer);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<OutboxEventDto> buffer = new ArrayBlockingQueue<>(replaySize + bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(OutboxEventDto event) {
+            if (closed.get()) return;
+            if (!buffer.offer(event)) {
+                log.warn("Очередь подписчика на события переполнена, подписчик отключен");
+                close();
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) executor.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                do {
+                    OutboxEventDto event;
+                    while ((event = buffer.poll()) != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getId()))
+                                .name(event.getType().name())
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                    draining.set(false);
+                } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // соединение закрыто или эмиттер уже завершен
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.outbox.sink;
+
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+
+import java.util.List;
+
+/**
+ * Получатель опубликованных событий. Пачка передается в порядке id; исключение оставляет пачку
+ * в outbox, и relay повторит ее, поэтому получатель должен переносить повторную доставку.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEventDto> events);
+}
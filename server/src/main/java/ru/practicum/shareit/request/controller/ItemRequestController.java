@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -31,17 +33,23 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getAllByUser(@RequestHeader(HEADER) long userId) {
+    public List<ItemRequestDto> getAllByUser(@RequestHeader(HEADER) long userId,
+                                             @RequestParam(defaultValue = "0") int from,
+                                             @RequestParam(required = false) Integer size) {
         log.info("Получен запрос GET /requests");
-        return itemRequestService.getAllByUser(userId);
+        return itemRequestService.getAllByUser(userId, from, size);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAll(@RequestHeader(HEADER) long userId,
-                                       @RequestParam int from,
-                                       @RequestParam int size) {
+    public ResponseEntity<List<ItemRequestDto>> getAll(@RequestHeader(HEADER) long userId,
+                                                       @RequestParam int from,
+                                                       @RequestParam int size,
+                                                       @RequestParam(required = false) String after) {
         log.info("Получен запрос GET /requests/all");
-        return itemRequestService.getAll(userId, from, size);
+        List<ItemRequestDto> result = after == null
+                ? itemRequestService.getAll(userId, from, size)
+                : itemRequestService.getAll(userId, PageCursor.decode(after), size);
+        return PageCursor.toResponse(result, size, request -> PageCursor.of(request.getCreated(), request.getId()));
     }
 
     @GetMapping("/{requestId}")
@@ -1,17 +1,39 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequesterIdOrderByCreationDesc(long requesterId);
+    List<ItemRequest> findAllByRequesterId(long requesterId, Pageable pageable);
+
+    List<ItemRequest> findAllByRequesterId(long requesterId, Sort sort);
 
     Optional<ItemRequest> findById(long requestId);
 
+    @Query("select r " +
+           "from ItemRequest as r " +
+           "where r.requester.id <> ?1")
     List<ItemRequest> findAllByRequesterIdNot(long userId, Pageable pageable);
+
+    @Query("select r " +
+           "from ItemRequest as r " +
+           "where r.requester.id <> ?1 " +
+           "and r.creation <= ?2 " +
+           "and (r.creation < ?2 or r.id < ?3) " +
+           "order by r.creation desc, r.id desc")
+    List<ItemRequest> findAllByRequesterIdNotAfter(long userId, LocalDateTime creation, long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ItemRequest as r " +
+           "where r.requester.id = ?1")
+    int deleteAllByRequesterId(long requesterId);
 }
@@ -2,15 +2,21 @@ package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
 public interface ItemRequestService {
 
-    List<ItemRequestDto> getAllByUser(long userId);
+    /**
+     * Запросы пользователя, новые первыми; без size - все запросы, как до постраничного вывода.
+     */
+    List<ItemRequestDto> getAllByUser(long userId, int from, Integer size);
 
     List<ItemRequestDto> getAll(long userId, int from, int size);
 
+    List<ItemRequestDto> getAll(long userId, PageCursor after, int size);
+
     ItemRequestDto getById(long userId, long requestId);
 
     ItemRequestDto addRequest(long userId, ItemRequestShortDto itemRequestShortDto);
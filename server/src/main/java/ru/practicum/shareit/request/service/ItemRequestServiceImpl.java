@@ -3,11 +3,15 @@ package ru.practicum.shareit.request.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -15,10 +19,14 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.Mapper;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PaginationAndSortParams;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,38 +37,59 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final OutboxService outboxService;
 
     @Autowired
     public ItemRequestServiceImpl(ItemRequestRepository itemRequestRepository,
                                   UserRepository userRepository,
-                                  ItemRepository itemRepository) {
+                                  ItemRepository itemRepository,
+                                  OutboxService outboxService) {
         this.itemRequestRepository = itemRequestRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.outboxService = outboxService;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestDto> getAllByUser(long userId) {
+    public List<ItemRequestDto> getAllByUser(long userId, int from, Integer size) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("user"));
-        List<ItemRequestDto> result = itemRequestRepository.findAllByRequesterIdOrderByCreationDesc(userId).stream()
+        List<ItemRequest> itemRequests = size == null
+                ? itemRequestRepository.findAllByRequesterId(userId, Sort.by("creation", "id").descending())
+                : itemRequestRepository.findAllByRequesterId(userId,
+                        PaginationAndSortParams.getPageableDesc(from, size, "creation", "id"));
+        List<ItemRequestDto> result = itemRequests.stream()
                 .map(Mapper::toDto)
-                .peek(this::fillByItems)
                 .collect(Collectors.toList());
-        log.debug("Отправлен список ItemRequestDto {}", result);
+        fillByItems(result);
+        log.debug("Отправлен список ItemRequestDto, размер {}", result.size());
         return result;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getAll(long userId, int from, int size) {
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(from, size, "creation");
+        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(from, size, "creation", "id");
         List<ItemRequestDto> result = itemRequestRepository.findAllByRequesterIdNot(userId, pageRequest).stream()
                 .map(Mapper::toDto)
-                .peek(this::fillByItems)
                 .collect(Collectors.toList());
-        log.debug("Отправлен список ItemRequestDto {}", result);
+        fillByItems(result);
+        log.debug("Отправлен список ItemRequestDto, размер {}", result.size());
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAll(long userId, PageCursor after, int size) {
+        after.requireTimestamp();
+        Pageable pageRequest = PaginationAndSortParams.getPageable(0, size);
+        List<ItemRequestDto> result = itemRequestRepository
+                .findAllByRequesterIdNotAfter(userId, after.getTimestamp(), after.getId(), pageRequest).stream()
+                .map(Mapper::toDto)
+                .collect(Collectors.toList());
+        fillByItems(result);
+        log.debug("Отправлен список ItemRequestDto, размер {}", result.size());
         return result;
     }
 
@@ -71,8 +100,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .orElseThrow(() -> new NotFoundException("user"));
         ItemRequestDto result = Mapper.toDto(itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("request")));
-        fillByItems(result);
-        log.debug("Отправлен ItemRequestDto {}", result);
+        fillByItems(List.of(result));
+        log.debug("Отправлен ItemRequestDto id = {}, Item {}", result.getId(), result.getItems().size());
         return result;
     }
 
@@ -83,14 +112,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         LocalDateTime timestamp = LocalDateTime.now();
         ItemRequest itemRequest = itemRequestRepository.save(Mapper.fromShortDto(requester, itemRequestShortDto, timestamp));
         ItemRequestDto result = Mapper.toDto(itemRequest);
-        log.debug("Отправлен ItemRequestDto {}", result);
+        outboxService.record(OutboxEventType.REQUEST_CREATED, result.getId(), result);
+        log.debug("Отправлен ItemRequestDto id = {}", result.getId());
         return result;
     }
 
-    private void fillByItems(ItemRequestDto itemRequestDto) {
-        List<ItemForRequestDto> items = itemRepository.findAllByItemRequestId(itemRequestDto.getId()).stream()
-                .map(Mapper::toItemForRequestDto)
-                .collect(Collectors.toList());
-        itemRequestDto.setItems(items);
+    private void fillByItems(List<ItemRequestDto> itemRequestsDto) {
+        if (itemRequestsDto.isEmpty()) return;
+        Map<Long, List<ItemForRequestDto>> itemsByRequestId = new HashMap<>();
+        for (ItemRequestDto itemRequestDto : itemRequestsDto) {
+            List<ItemForRequestDto> itemsDto = new ArrayList<>();
+            itemRequestDto.setItems(itemsDto);
+            itemsByRequestId.put(itemRequestDto.getId(), itemsDto);
+        }
+
+        for (Item item : itemRepository.findAllByItemRequestIds(itemsByRequestId.keySet())) {
+            itemsByRequestId.get(item.getItemRequest().getId()).add(Mapper.toItemForRequestDto(item));
+        }
     }
 }
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Спан CLIENT на каждое выполнение SQL внутри трассы: имя - команда (SELECT, INSERT...),
+ * текст запроса в атрибуте db.statement, для пакета - размер в db.batch_size.
+ */
+public class JdbcTracingListener implements QueryExecutionListener {
+
+    private static final String SPAN = JdbcTracingListener.class.getName();
+
+    private final Tracer tracer;
+
+    public JdbcTracingListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+        if (queries.isEmpty() || !Span.current().getSpanContext().isValid()) return;
+        String sql = queries.get(0).getQuery();
+        Span span = tracer.spanBuilder(command(sql))
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("db.statement", sql)
+                .startSpan();
+        if (execution.isBatch()) span.setAttribute("db.batch_size", execution.getBatchSize());
+        execution.addCustomValue(SPAN, span);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+        Span span = execution.getCustomValue(SPAN, Span.class);
+        if (span == null) return;
+        if (execution.getThrowable() != null) {
+            span.recordException(execution.getThrowable());
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    private static String command(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) end++;
+        return end == 0 ? "SQL" : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.trace.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Спаны сервера сверх общих из {@link TracingConfig}: вызовы сервисов и SQL-запросы.
+ */
+@Configuration
+public class ServerTracingConfig {
+
+    @Bean
+    @ConditionalOnExpression(TracingConfig.ENABLED)
+    public static ServiceTracingPostProcessor serviceTracingPostProcessor(ObjectProvider<Tracer> tracer) {
+        return new ServiceTracingPostProcessor(tracer);
+    }
+
+    @Bean
+    @ConditionalOnExpression(TracingConfig.ENABLED)
+    public static TracingDataSourcePostProcessor tracingDataSourcePostProcessor(ObjectProvider<Tracer> tracer) {
+        return new TracingDataSourcePostProcessor(tracer);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Открывает спан на каждый вызов метода бина с аннотацией @Service, если вызов уже входит в трассу.
+ * Имя спана - класс и метод сервиса, например UserServiceImpl.add.
+ */
+public class ServiceTracingPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    public ServiceTracingPostProcessor(ObjectProvider<Tracer> tracer) {
+        this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true),
+                new TracingInterceptor(tracer));
+        setBeforeExistingAdvisors(true);
+    }
+
+    private static class TracingInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<Tracer> tracerProvider;
+
+        TracingInterceptor(ObjectProvider<Tracer> tracerProvider) {
+            this.tracerProvider = tracerProvider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (!Span.current().getSpanContext().isValid()) return invocation.proceed();
+            Span span = tracerProvider.getObject()
+                    .spanBuilder(ClassUtils.getUserClass(invocation.getThis()).getSimpleName()
+                            + "." + invocation.getMethod().getName())
+                    .startSpan();
+            try (Scope ignored = span.makeCurrent()) {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                span.recordException(e);
+                span.setStatus(StatusCode.ERROR);
+                throw e;
+            } finally {
+                span.end();
+            }
+        }
+    }
+}
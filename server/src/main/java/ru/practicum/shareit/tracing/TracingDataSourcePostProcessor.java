@@ -0,0 +1,30 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.trace.Tracer;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает DataSource прокси, который открывает спан на каждое выполнение SQL.
+ */
+public class TracingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<Tracer> tracer;
+
+    public TracingDataSourcePostProcessor(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) return bean;
+        return ProxyDataSourceBuilder.create((DataSource) bean)
+                .name(beanName)
+                .listener(new JdbcTracingListener(tracer.getObject()))
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -10,8 +12,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.JsonArrayStream;
 
 import java.util.List;
 
@@ -21,10 +25,12 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper mapper;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper mapper) {
         this.userService = userService;
+        this.mapper = mapper;
     }
 
     @GetMapping("/{userId}")
@@ -34,9 +40,9 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserDto> getAll() {
+    public ResponseEntity<StreamingResponseBody> getAll() {
         log.info("Получен запрос GET /users");
-        return userService.getAll();
+        return JsonArrayStream.toResponse(mapper, userService::getAll);
     }
 
     @PostMapping
@@ -45,6 +51,12 @@ public class UserController {
         return userService.add(userDto);
     }
 
+    @PostMapping("/batch")
+    public List<UserDto> addAll(@RequestBody List<UserDto> userDtos) {
+        log.info("Получен запрос POST /users/batch, размер {}", userDtos.size());
+        return userService.addAll(userDtos);
+    }
+
     @PatchMapping("/{userId}")
     public UserDto update(@PathVariable long userId,
                           @RequestBody UserDto userDto) {
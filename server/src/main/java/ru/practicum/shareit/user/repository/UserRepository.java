@@ -1,6 +1,30 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {}
\ No newline at end of file
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface UserRepository extends JpaRepository<User, Long> {
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) " +
+           "from User as u " +
+           "order by u.id")
+    Stream<UserDto> streamAll();
+
+    boolean existsByEmailIn(Collection<String> emails);
+
+    @Modifying
+    @Query("delete from User as u " +
+           "where u.id = ?1")
+    int deleteUserById(long userId);
+}
\ No newline at end of file
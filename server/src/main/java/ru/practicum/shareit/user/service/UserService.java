@@ -3,15 +3,18 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
     UserDto getById(long id);
 
-    List<UserDto> getAll();
+    void getAll(Consumer<UserDto> consumer);
 
     UserDto add(UserDto userDto);
 
+    List<UserDto> addAll(List<UserDto> userDtos);
+
     UserDto update(long id, UserDto userDto);
 
     void deleteById(long id);
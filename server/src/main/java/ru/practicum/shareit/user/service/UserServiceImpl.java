@@ -4,30 +4,63 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.AlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.availability.BookingInterval;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.Mapper;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final CommentRepository commentRepository;
+    private final ItemDetailsCache itemDetailsCache;
+    private final BookingRepository bookingRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, ItemRepository itemRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           ItemRepository itemRepository,
+                           ItemSearchEngine itemSearchEngine,
+                           CommentRepository commentRepository,
+                           ItemDetailsCache itemDetailsCache,
+                           BookingRepository bookingRepository,
+                           ItemRequestRepository itemRequestRepository,
+                           ItemAvailabilityIndex itemAvailabilityIndex) {
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.commentRepository = commentRepository;
+        this.itemDetailsCache = itemDetailsCache;
+        this.bookingRepository = bookingRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
     }
 
     @Override
@@ -35,18 +68,17 @@ public class UserServiceImpl implements UserService {
     public UserDto getById(long id) {
         UserDto result = Mapper.toDto(userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("user")));
-        log.debug("Отправлен UserDto {}", result);
+        log.debug("Отправлен UserDto id = {}", result.getId());
         return result;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDto> getAll() {
-        List<UserDto> result = userRepository.findAll().stream()
-                .map(Mapper::toDto)
-                .collect(Collectors.toList());
-        log.debug("Отправлен список UserDto {}", result);
-        return result;
+    public void getAll(Consumer<UserDto> consumer) {
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            users.forEach(consumer);
+        }
+        log.debug("Отправлен поток UserDto");
     }
 
     @Override
@@ -54,7 +86,32 @@ public class UserServiceImpl implements UserService {
         validation(userDto);
         User user = Mapper.fromDto(userDto);
         UserDto result = Mapper.toDto(userRepository.save(user));
-        log.debug("Отправлен UserDto {}", result);
+        log.debug("Отправлен UserDto id = {}", result.getId());
+        return result;
+    }
+
+    /**
+     * Добавляет пользователей одной транзакцией: id выдаются из последовательности без обращения
+     * к базе на каждого, вставки уходят пакетами JDBC при фиксации транзакции. Повтор email в пакете
+     * или совпадение с существующим пользователем проверяются до вставки одним запросом.
+     */
+    @Override
+    public List<UserDto> addAll(List<UserDto> userDtos) {
+        if (userDtos.size() > MAX_BATCH_SIZE) throw new ValidationException("size");
+        List<User> users = new ArrayList<>(userDtos.size());
+        Set<String> emails = new HashSet<>();
+        for (UserDto userDto : userDtos) {
+            validation(userDto);
+            if (!emails.add(userDto.getEmail())) throw new AlreadyExistException("email");
+            User user = Mapper.fromDto(userDto);
+            user.setId(0);
+            users.add(user);
+        }
+        if (!users.isEmpty() && userRepository.existsByEmailIn(emails)) throw new AlreadyExistException("email");
+        List<UserDto> result = userRepository.saveAll(users).stream()
+                .map(Mapper::toDto)
+                .collect(Collectors.toList());
+        log.debug("Добавлен список User, размер {}", result.size());
         return result;
     }
 
@@ -67,25 +124,53 @@ public class UserServiceImpl implements UserService {
 
         if (updatingUser.getName() == null) updatingUser.setName(user.getName());
         if (updatingUser.getEmail() == null) updatingUser.setEmail(user.getEmail());
+        if (!updatingUser.getName().equals(user.getName())) {
+            itemDetailsCache.evictAll(commentRepository.findItemIdsByAuthorId(id));
+        }
 
         UserDto result = Mapper.toDto(userRepository.save(updatingUser));
-        log.debug("Отправлен UserDto {}", result);
+        log.debug("Отправлен UserDto id = {}", result.getId());
         return result;
     }
 
+    /**
+     * Удаляет пользователя вместе с его вещами, заявками, бронированиями и комментариями
+     * пакетными запросами delete ... where по индексированным столбцам, не загружая сущности.
+     * Вещи других пользователей, созданные по заявкам удаляемого, удаляет каскад fk_item_request.
+     */
     @Override
     public void deleteById(long id) {
-        userRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("user"));
-        deleteAllItemsFromUser(id);
-        userRepository.deleteById(id);
-        log.debug("User с id = {} удален", id);
+        if (!userRepository.existsById(id)) throw new NotFoundException("user");
+        List<Long> itemIds = new ArrayList<>(itemRepository.findIdsByOwnerId(id));
+        itemIds.addAll(itemRepository.findIdsByRequesterId(id));
+        Set<Long> changedItemIds = new HashSet<>(itemIds);
+        changedItemIds.addAll(commentRepository.findItemIdsByAuthorId(id));
+        List<BookingInterval> bookerIntervals = bookingRepository.findIntervalsByBookerId(id);
+
+        int comments = commentRepository.deleteAllByAuthorId(id) + commentRepository.deleteAllByItemOwnerId(id);
+        int bookings = bookingRepository.deleteAllByBookerId(id) + bookingRepository.deleteAllByItemOwnerId(id);
+        int items = itemRepository.deleteAllByOwnerId(id);
+        int requests = itemRequestRepository.deleteAllByRequesterId(id);
+        userRepository.deleteUserById(id);
+
+        itemSearchEngine.removeAll(itemIds);
+        itemDetailsCache.evictAll(changedItemIds);
+        itemAvailabilityIndex.removeItems(itemIds);
+        itemAvailabilityIndex.removeAll(bookerIntervals);
+        log.debug("User с id = {} удален вместе с Item {}, ItemRequest {}, Booking {}, Comment {}",
+                id, items, requests, bookings, comments);
     }
 
     @Override
     public void deleteAll() {
-        userRepository.deleteAll();
-        itemRepository.deleteAll();
+        commentRepository.deleteAllInBatch();
+        bookingRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        itemRequestRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        itemSearchEngine.clear();
+        itemDetailsCache.clear();
+        itemAvailabilityIndex.clear();
         log.debug("Все элементы User удалены");
     }
 
@@ -95,11 +180,4 @@ public class UserServiceImpl implements UserService {
         if (name == null || name.isBlank()) throw new ValidationException("name");
         if (email == null || email.isBlank()) throw new ValidationException("email");
     }
-
-    private void deleteAllItemsFromUser(long userId) {
-        for (Item item : itemRepository.findAll()) {
-            if (item.getOwner().getId() == userId) itemRepository.deleteById(item.getId());
-        }
-        log.debug("У User id = {} удалены все Item", userId);
-    }
 }
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.util;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.function.ToLongFunction;
+
+/**
+ * Преобразования сущность - DTO, реализацию генерирует MapStruct при компиляции.
+ * Билдеры Lombok отключены: объекты создаются конструктором напрямую. Если нужен только id
+ * связанной сущности, он берется из ленивого прокси Hibernate без его инициализации.
+ * Используется через статический фасад {@link Mapper}.
+ */
+@org.mapstruct.Mapper(builder = @Builder(disableBuilder = true), unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface EntityMapper {
+
+    //User
+    UserDto toDto(User user);
+
+    User fromDto(UserDto userDto);
+
+    //Item
+    @Mapping(target = "ownerId", source = "owner", qualifiedByName = "userId")
+    @Mapping(target = "requestId", source = "itemRequest", qualifiedByName = "itemRequestId")
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
+    ItemDto toDto(Item item);
+
+    @Mapping(target = "requestId", source = "itemRequest", qualifiedByName = "itemRequestId")
+    ItemForRequestDto toItemForRequestDto(Item item);
+
+    @Mapping(target = "id", source = "itemDto.id")
+    @Mapping(target = "name", source = "itemDto.name")
+    @Mapping(target = "description", source = "itemDto.description")
+    @Mapping(target = "available", source = "itemDto.available")
+    @Mapping(target = "owner", source = "owner")
+    @Mapping(target = "itemRequest", ignore = true)
+    Item fromDto(ItemDto itemDto, User owner);
+
+    //Comment
+    @Mapping(target = "authorName", source = "author.name")
+    CommentDto toDto(Comment comment);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "item", source = "itemId", qualifiedByName = "itemReference")
+    @Mapping(target = "author", ignore = true)
+    @Mapping(target = "created", ignore = true)
+    Comment fromDto(CommentDto commentDto, long itemId);
+
+    //Booking
+    @Mapping(target = "status", source = "state")
+    BookingDto toDto(Booking booking);
+
+    @Mapping(target = "bookerId", source = "booker", qualifiedByName = "userId")
+    BookingDtoShort toShortDto(Booking booking);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "start", source = "bookingRequestDto.start")
+    @Mapping(target = "end", source = "bookingRequestDto.end")
+    @Mapping(target = "booker", source = "booker")
+    @Mapping(target = "item", source = "item")
+    @Mapping(target = "state", constant = "WAITING")
+    Booking fromRequestDto(BookingRequestDto bookingRequestDto, User booker, Item item);
+
+    //ItemRequest
+    @Mapping(target = "created", source = "creation")
+    @Mapping(target = "items", ignore = true)
+    ItemRequestDto toDto(ItemRequest itemRequest);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "description", source = "shortDto.description")
+    @Mapping(target = "requester", source = "requester")
+    @Mapping(target = "creation", source = "timestamp")
+    ItemRequest fromShortDto(User requester, ItemRequestShortDto shortDto, LocalDateTime timestamp);
+
+    //Outbox
+    OutboxEventDto toDto(OutboxEvent outboxEvent);
+
+    @Named("userId")
+    default long userId(User user) {
+        return id(user, User.class, User::getId);
+    }
+
+    @Named("itemRequestId")
+    default long itemRequestId(ItemRequest itemRequest) {
+        return id(itemRequest, ItemRequest.class, ItemRequest::getId);
+    }
+
+    @Named("itemReference")
+    default Item itemReference(long itemId) {
+        Item item = new Item();
+        item.setId(itemId);
+        return item;
+    }
+
+    private static <T> long id(T entity, Class<T> type, ToLongFunction<T> getId) {
+        if (entity == null) return 0;
+        // точное сравнение класса дешевле instanceof по интерфейсу, а прокси всегда подкласс сущности
+        if (entity.getClass() != type && entity instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) entity).getHibernateLazyInitializer().getIdentifier();
+        }
+        return getId.applyAsLong(entity);
+    }
+}
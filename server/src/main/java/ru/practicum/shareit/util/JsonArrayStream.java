@@ -0,0 +1,43 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Ответ в виде JSON-массива, который пишется в поток по одному элементу по мере чтения из источника,
+ * без сборки списка в памяти. Ошибка источника посреди ответа не закрывает массив: исключение уходит
+ * в контейнер, который обрывает соединение без завершающего блока chunked, и клиент не примет
+ * усеченный массив за полный ответ.
+ */
+@UtilityClass
+public class JsonArrayStream {
+
+    public static <T> ResponseEntity<StreamingResponseBody> toResponse(ObjectMapper mapper,
+                                                                     Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = mapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartArray();
+            source.accept(value -> {
+                try {
+                    generator.writeObject(value);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -1,7 +1,6 @@
 package ru.practicum.shareit.util;
 
 import lombok.experimental.UtilityClass;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
@@ -9,14 +8,14 @@ import org.springframework.data.domain.Sort;
 public class PaginationAndSortParams {
 
     public static Pageable getPageable(int from, int size) {
-        return PageRequest.of(from / size, size);
+        return new OffsetPageRequest(from, size, Sort.unsorted());
     }
 
-    public static Pageable getPageableAsc(int from, int size, String sortBy) {
-        return PageRequest.of(from / size, size, Sort.by(sortBy));
+    public static Pageable getPageableAsc(int from, int size, String... sortBy) {
+        return new OffsetPageRequest(from, size, Sort.by(sortBy));
     }
 
-    public static Pageable getPageableDesc(int from, int size, String sortBy) {
-        return PageRequest.of(from / size, size, Sort.by(sortBy).descending());
+    public static Pageable getPageableDesc(int from, int size, String... sortBy) {
+        return new OffsetPageRequest(from, size, Sort.by(sortBy).descending());
     }
 }
@@ -1,17 +1,11 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-
-CREATE TABLE IF NOT EXISTS users (
+CREATE TABLE users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
-CREATE TABLE IF NOT EXISTS requests (
+CREATE TABLE requests (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
   description VARCHAR(512) NOT NULL,
   requester_id BIGINT NOT NULL,
@@ -19,7 +13,7 @@ CREATE TABLE IF NOT EXISTS requests (
   CONSTRAINT fk_request_user FOREIGN KEY (requester_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS items (
+CREATE TABLE items (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(512) NOT NULL,
@@ -31,7 +25,7 @@ CREATE TABLE IF NOT EXISTS items (
   CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS bookings (
+CREATE TABLE bookings (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
   date_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   date_end TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -42,7 +36,7 @@ CREATE TABLE IF NOT EXISTS bookings (
   CONSTRAINT fk_booking_user FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS comments (
+CREATE TABLE comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
   text VARCHAR(512) NOT NULL,
   item_id BIGINT NOT NULL,
@@ -0,0 +1,11 @@
+-- items(owner_id) is covered by the UQ_OWNER_ITEM_NAME (owner_id, name) unique index.
+CREATE INDEX ix_items_request_id ON items (request_id);
+
+CREATE INDEX ix_bookings_booker_id_date_start ON bookings (booker_id, date_start);
+CREATE INDEX ix_bookings_item_id_date_start ON bookings (item_id, date_start);
+
+CREATE INDEX ix_comments_item_id_created ON comments (item_id, created);
+CREATE INDEX ix_comments_author_id ON comments (author_id);
+
+CREATE INDEX ix_requests_requester_id_created ON requests (requester_id, created);
+CREATE INDEX ix_requests_created_id ON requests (created DESC, id DESC);
\ No newline at end of file
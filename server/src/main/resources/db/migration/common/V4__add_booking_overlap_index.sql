@@ -0,0 +1,3 @@
+-- Overlap check on booking creation: new bookings start in the future, so bookings
+-- that can intersect them end after now; (item_id, date_end) keeps that range short.
+CREATE INDEX ix_bookings_item_id_date_end ON bookings (item_id, date_end);
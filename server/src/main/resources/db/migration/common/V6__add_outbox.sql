@@ -0,0 +1,11 @@
+-- Transactional outbox: change events are inserted in the same transaction as the change,
+-- OutboxRelay publishes them in id order and deletes the published rows.
+CREATE SEQUENCE outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE outbox (
+  id BIGINT PRIMARY KEY NOT NULL,
+  event_type VARCHAR(32) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  payload VARCHAR NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
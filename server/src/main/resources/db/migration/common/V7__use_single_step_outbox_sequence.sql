@@ -0,0 +1,4 @@
+-- Outbox ids are taken one by one at insert time: with pooled blocks of 50 ids, events of
+-- different instances and transactions got ids far out of commit order. OutboxRelay publishes
+-- in id order and only events older than shareit.outbox.visibility-window.
+ALTER SEQUENCE outbox_seq INCREMENT BY 1;
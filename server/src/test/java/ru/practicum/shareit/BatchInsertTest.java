@@ -0,0 +1,176 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.exception.AlreadyExistException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетное добавление: id выдаются из последовательности по 50 за обращение, вставки уходят
+ * пакетами JDBC, поэтому число подготовленных операторов не растет с каждой строкой.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({UserServiceImpl.class, ItemServiceImpl.class})
+public class BatchInsertTest {
+
+    private static final int ROWS = 120;
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockBean
+    private ItemSearchEngine itemSearchEngine;
+    @MockBean
+    private ItemDetailsCache itemDetailsCache;
+    @MockBean
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @MockBean
+    private OutboxService outboxService;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void shouldAddUsersInBatches() {
+        List<UserDto> userDtos = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            userDtos.add(UserDto.builder().id(1000 + i).name("user " + i).email("user" + i + "@email.ru").build());
+        }
+        statistics.clear();
+
+        List<UserDto> result = userService.addAll(userDtos);
+        entityManager.flush();
+
+        // проверка email, 3 обращения к последовательности и один insert, выполненный тремя пакетами, вместо 120 insert
+        Assertions.assertEquals(5, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(ROWS, statistics.getEntityInsertCount());
+        Assertions.assertEquals(ROWS, result.stream().map(UserDto::getId).distinct().count());
+        entityManager.clear();
+        Assertions.assertEquals(ROWS, userRepository.count());
+        Assertions.assertEquals("user 7", userRepository.findById(result.get(7).getId()).orElseThrow().getName());
+    }
+
+    @Test
+    public void shouldAddItemsInBatches() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build());
+        UserDto requester = userService.add(UserDto.builder().name("requester").email("requester@email.ru").build());
+        ItemRequest itemRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("desc")
+                .requester(userRepository.getReferenceById(requester.getId()))
+                .creation(LocalDateTime.now())
+                .build());
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            itemDtos.add(ItemDto.builder()
+                    .name("item " + i)
+                    .description("desc " + i)
+                    .available(true)
+                    .requestId(i % 2 == 0 ? itemRequest.getId() : 0)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<ItemDto> result = itemService.addAll(itemDtos, owner.getId());
+        entityManager.flush();
+
+        // владелец, заявки, 3 обращения к последовательности и один insert тремя пакетами
+        Assertions.assertEquals(6, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(ROWS, statistics.getEntityInsertCount());
+        entityManager.clear();
+        List<Item> items = itemRepository.findAllById(result.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        Assertions.assertEquals(ROWS, items.size());
+        Assertions.assertEquals(ROWS / 2, items.stream().filter(item -> item.getItemRequest() != null).count());
+        Assertions.assertTrue(items.stream().allMatch(item -> item.getOwner().getId() == owner.getId()));
+        Mockito.verify(itemSearchEngine).indexAll(Mockito.argThat(indexed -> indexed.size() == ROWS));
+        Mockito.verify(itemSearchEngine, Mockito.never()).index(Mockito.any());
+    }
+
+    @Test
+    public void shouldRejectDuplicateEmailInBatch() {
+        List<UserDto> userDtos = List.of(
+                UserDto.builder().name("first").email("same@email.ru").build(),
+                UserDto.builder().name("second").email("same@email.ru").build());
+
+        AlreadyExistException exception = Assertions.assertThrows(AlreadyExistException.class,
+                () -> userService.addAll(userDtos));
+
+        Assertions.assertEquals("email", exception.getParameter());
+        Assertions.assertEquals(0, userRepository.count());
+    }
+
+    @Test
+    public void shouldRejectBatchWithExistingEmail() {
+        userService.add(UserDto.builder().name("existing").email("existing@email.ru").build());
+        List<UserDto> userDtos = List.of(
+                UserDto.builder().name("new").email("new@email.ru").build(),
+                UserDto.builder().name("copy").email("existing@email.ru").build());
+
+        AlreadyExistException exception = Assertions.assertThrows(AlreadyExistException.class,
+                () -> userService.addAll(userDtos));
+
+        Assertions.assertEquals("email", exception.getParameter());
+        Assertions.assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    public void shouldRejectOversizedBatches() {
+        List<UserDto> userDtos = new ArrayList<>();
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i <= MAX_BATCH_SIZE; i++) {
+            userDtos.add(UserDto.builder().name("user " + i).email("user" + i + "@email.ru").build());
+            itemDtos.add(ItemDto.builder().name("item " + i).description("desc").available(true).build());
+        }
+
+        Assertions.assertEquals("size", Assertions.assertThrows(ValidationException.class,
+                () -> userService.addAll(userDtos)).getParameter());
+        Assertions.assertEquals("size", Assertions.assertThrows(ValidationException.class,
+                () -> itemService.addAll(itemDtos, 1)).getParameter());
+    }
+}
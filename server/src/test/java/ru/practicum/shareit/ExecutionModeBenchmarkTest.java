@@ -0,0 +1,112 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Сравнение пропускной способности сервера в режимах platform и virtual при 1000+ одновременных клиентах.
+ * Запуск: mvn test -pl server -Dtest=ExecutionModeBenchmarkTest -Dbenchmark=true [-Dbenchmark.clients=2000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ExecutionModeBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+    @Test
+    public void compareExecutionModes() throws Exception {
+        Result platform = run("platform");
+        Result virtual = run("virtual");
+
+        System.out.println(platform);
+        System.out.println(virtual);
+        Assertions.assertTrue(platform.requests > 0);
+        Assertions.assertTrue(virtual.requests > 0);
+    }
+
+    private Result run(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = SpringApplication.run(ShareItServer.class,
+                "--server.port=0",
+                "--spring.profiles.active=test",
+                "--shareit.execution-mode=" + mode,
+                "--logging.level.root=WARN")) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"user\",\"email\":\"user@email.ru\"}"))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1")).build();
+
+            load(client, request, WARMUP);
+            long[] latencies = load(client, request, MEASUREMENT);
+            return new Result(mode, latencies);
+        }
+    }
+
+    private long[] load(HttpClient client, HttpRequest request, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) latencies.add(System.nanoTime() - start);
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            all.addAll(future.get());
+        }
+        return all.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static class Result {
+        private final String mode;
+        private final long requests;
+        private final long[] latencies;
+
+        Result(String mode, long[] latencies) {
+            this.mode = mode;
+            this.requests = latencies.length;
+            this.latencies = Arrays.copyOf(latencies, latencies.length);
+        }
+
+        private double percentileMillis(double percentile) {
+            if (latencies.length == 0) return 0;
+            return latencies[(int) Math.min(latencies.length - 1, latencies.length * percentile)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("mode=%s clients=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms",
+                    mode, CLIENTS, requests / (double) MEASUREMENT.toSeconds(),
+                    percentileMillis(0.5), percentileMillis(0.99));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.controller.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRole;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.util.PageCursor;
+import ru.practicum.shareit.util.PaginationAndSortParams;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Выполняет EXPLAIN для SQL, который генерируют запросы репозиториев,
+ * и падает, если хотя бы одна таблица читается полным сканированием.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$CapturingStatementInspector")
+public class QueryPlanTest {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    private final LocalDateTime timestamp = LocalDateTime.now();
+    private final Pageable pageRequest = PaginationAndSortParams.getPageable(0, 10);
+
+    @BeforeEach
+    public void clearStatements() {
+        STATEMENTS.clear();
+    }
+
+    @Test
+    public void bookingQueriesShouldUseIndexes() {
+        bookingRepository.getBookingById(1, 1);
+        bookingRepository.findBookingByIdAndItemOwnerId(1, 1);
+        bookingRepository.findFirstByItemIdAndStartAfterAndStateNotOrderByStartAsc(1, timestamp, BookingStatus.REJECTED);
+        bookingRepository.findFirstByItemIdAndStartBeforeAndStateNotOrderByEndDesc(1, timestamp, BookingStatus.REJECTED);
+        bookingRepository.findLastAndNextByItemIds(List.of(1L, 2L), timestamp, BookingStatus.REJECTED);
+        bookingRepository.findFirstByItemIdAndBookerIdAndStateAndEndIsBefore(1, 1, BookingStatus.APPROVED, timestamp);
+        bookingRepository.existsByItemIdAndStateInAndStartBeforeAndEndAfter(1,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), timestamp, timestamp);
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingState state : BookingState.values()) {
+                bookingRepository.findAllByRole(role, 1, state, timestamp, pageRequest);
+                bookingRepository.findAllByRoleAfter(role, 1, state, timestamp, PageCursor.of(timestamp, 1), 10);
+            }
+        }
+
+        assertNoFullScans();
+    }
+
+    @Test
+    public void itemQueriesShouldUseIndexes() {
+        itemRepository.findAllByOwnerId(1, PaginationAndSortParams.getPageable(0, 10));
+        itemRepository.findAllByOwnerIdAndIdGreaterThan(1, 1, PaginationAndSortParams.getPageable(0, 10));
+        itemRepository.findAllByItemRequestIds(List.of(1L, 2L));
+        itemRepository.findByIdForUpdate(1);
+
+        assertNoFullScans();
+    }
+
+    @Test
+    public void commentQueriesShouldUseIndexes() {
+        commentRepository.findAllByItemIdOrderByCreated(1);
+        commentRepository.findAllByItemIds(List.of(1L, 2L));
+        commentRepository.findItemIdsByAuthorId(1);
+
+        assertNoFullScans();
+    }
+
+    @Test
+    public void itemRequestQueriesShouldUseIndexes() {
+        Pageable requestPage = PaginationAndSortParams.getPageableDesc(0, 10, "creation", "id");
+        itemRequestRepository.findAllByRequesterId(1, requestPage);
+        itemRequestRepository.findById(1L);
+        itemRequestRepository.findAllByRequesterIdNot(1, requestPage);
+        itemRequestRepository.findAllByRequesterIdNotAfter(1, timestamp, 1, PaginationAndSortParams.getPageable(0, 10));
+
+        assertNoFullScans();
+    }
+
+    private void assertNoFullScans() {
+        List<String> selects = new ArrayList<>();
+        for (String sql : STATEMENTS) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) selects.add(sql);
+        }
+        Assertions.assertFalse(selects.isEmpty());
+        for (String sql : selects) {
+            String plan = explain(sql);
+            Assertions.assertFalse(plan.contains(".tableScan"), () -> "Полное сканирование таблицы:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int count = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= count; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сравнение удаления пользователя старым способом (загрузка всех вещей и удаление по одной)
+ * и пакетными запросами delete ... where при 1 000 000 вещей в базе.
+ * Запуск: mvn test -pl server -Dtest=UserDeletionBenchmarkTest -Dbenchmark=true -DargLine=-Xmx3g
+ * [-Dbenchmark.items=1000000 -Dbenchmark.owners=1000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "logging.level.root=WARN")
+public class UserDeletionBenchmarkTest {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 1_000_000);
+    private static final int OWNERS = Integer.getInteger("benchmark.owners", 1000);
+    private static final int BATCH = 10_000;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void clear() {
+        userService.deleteAll();
+    }
+
+    @Test
+    public void compareUserDeletion() {
+        long legacyUserId = fill();
+        long legacy = measure(() -> transactionTemplate.executeWithoutResult(status -> {
+            for (Item item : itemRepository.findAll()) {
+                if (item.getOwner().getId() == legacyUserId) itemRepository.deleteById(item.getId());
+            }
+            userRepository.deleteById(legacyUserId);
+        }));
+        userService.deleteAll();
+
+        long userId = fill();
+        long setBased = measure(() -> userService.deleteById(userId));
+
+        System.out.printf("items=%d owners=%d legacy=%d ms set-based=%d ms%n", ITEMS, OWNERS, legacy, setBased);
+        Assertions.assertFalse(userRepository.existsById(userId));
+        Assertions.assertEquals(ITEMS - ITEMS / OWNERS, itemRepository.count());
+    }
+
+    /**
+     * Заполняет базу пакетными вставками: у каждого владельца ITEMS / OWNERS вещей, у вещей первого
+     * владельца есть бронирование и комментарий. Возвращает id первого владельца.
+     */
+    private long fill() {
+        Timestamp timestamp = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < OWNERS; i++) {
+            users.add(new Object[]{"user " + i, "user" + i + "@email.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (name, email) values (?, ?)", users);
+        long firstUserId = jdbcTemplate.queryForObject("select min(id) from users", Long.class);
+
+        List<Object[]> items = new ArrayList<>(BATCH);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"item " + i, "desc " + i, firstUserId + i % OWNERS});
+            if (items.size() == BATCH) {
+                jdbcTemplate.batchUpdate("insert into items (name, description, owner_id, available) values (?, ?, ?, true)", items);
+                items.clear();
+            }
+        }
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into items (name, description, owner_id, available) values (?, ?, ?, true)", items);
+        }
+
+        jdbcTemplate.update("insert into bookings (date_start, date_end, item_id, booker_id, state) " +
+                "select ?, ?, id, ?, 'APPROVED' from items where owner_id = ?",
+                timestamp, timestamp, firstUserId + 1, firstUserId);
+        jdbcTemplate.update("insert into comments (text, item_id, author_id, created) " +
+                "select 'text', id, ?, ? from items where owner_id = ?",
+                firstUserId + 1, timestamp, firstUserId);
+        return firstUserId;
+    }
+
+    private static long measure(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
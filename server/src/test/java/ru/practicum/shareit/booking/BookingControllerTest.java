@@ -4,6 +4,7 @@ package ru.practicum.shareit.booking;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -13,6 +14,7 @@ import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,6 +24,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -88,6 +91,26 @@ public class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
     }
 
+    @Test
+    public void shouldReturnNextCursorWhenPageIsFull() throws Exception {
+        PageCursor cursor = PageCursor.of(timestamp.plusDays(1), 5);
+        when(bookingService.getAllBookingsByBooker(Mockito.eq(userId), Mockito.eq("ALL"), Mockito.any(PageCursor.class), Mockito.eq(1)))
+                .thenReturn((List.of(bookingDto)));
+
+        mvc.perform(get(QUERY + "/?state=ALL&from=0&size=1&after=" + cursor.encode())
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.HEADER, PageCursor.of(timestamp, bookingId).encode()))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenCursorMalformed() throws Exception {
+        mvc.perform(get(QUERY + "/owner?state=ALL&from=0&size=1&after=%%%")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void shouldAddBooking() throws Exception {
         mvc.perform(post(QUERY)
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.feed.BookingFeedHub;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BookingFeedHubTest {
+
+    private static final long USER_ID = 1;
+    private static final long OTHER_USER_ID = 2;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final BookingFeedHub hub = new BookingFeedHub(Duration.ofMinutes(1), 3, registry, executor);
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        hub.shutdown();
+    }
+
+    @Test
+    public void shouldDisconnectSubscriberOnOverflow() {
+        // единственный поток занят, очередь подписчика не разбирается; первое место в ней занимает
+        // комментарий, открывающий поток
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        hub.subscribe(USER_ID);
+        hub.subscribe(OTHER_USER_ID);
+
+        Assertions.assertEquals(2, subscribers());
+
+        hub.publish(USER_ID, booking(1));
+        hub.publish(USER_ID, booking(2));
+
+        Assertions.assertEquals(0, overflows());
+
+        hub.publish(USER_ID, booking(3));
+
+        Assertions.assertEquals(1, overflows());
+        Assertions.assertEquals(1, subscribers());
+
+        hub.publish(USER_ID, booking(4));
+        hub.publish(OTHER_USER_ID, booking(5));
+
+        Assertions.assertEquals(1, overflows());
+        Assertions.assertEquals(1, subscribers());
+    }
+
+    private double subscribers() {
+        return registry.get("shareit.booking.feed.subscribers").gauge().value();
+    }
+
+    private double overflows() {
+        return registry.get("shareit.booking.feed.overflows").counter().count();
+    }
+
+    private static BookingDto booking(long id) {
+        return BookingDto.builder()
+                .id(id)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+}
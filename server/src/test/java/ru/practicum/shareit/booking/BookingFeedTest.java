@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Лента бронирований: владелец узнает о новом бронировании, арендатор - о решении владельца.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookingFeedTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    public void createEntity() {
+        ownerId = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build()).getId();
+        bookerId = userService.add(UserDto.builder().name("booker").email("booker@email.ru").build()).getId();
+        itemId = itemService.add(ItemDto.builder().name("drill").description("desc").available(true).build(), ownerId).getId();
+    }
+
+    @AfterEach
+    public void clear() {
+        userService.deleteAll();
+    }
+
+    @Test
+    public void shouldPushBookingChanges() throws Exception {
+        MockHttpServletResponse ownerFeed = subscribe(ownerId);
+        MockHttpServletResponse bookerFeed = subscribe(bookerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        long bookingId = bookingService.add(new BookingRequestDto(itemId, start, start.plusDays(1)), bookerId).getId();
+
+        await(ownerFeed, "event:WAITING\ndata:{\"id\":" + bookingId);
+
+        bookingService.setBookingApprove(bookingId, ownerId, true);
+
+        String bookerEvents = await(bookerFeed, "event:APPROVED\ndata:{\"id\":" + bookingId);
+        Assertions.assertFalse(bookerEvents.contains("event:WAITING"));
+        Assertions.assertFalse(ownerFeed.getContentAsString().contains("event:APPROVED"));
+    }
+
+    @Test
+    public void shouldRejectUnknownUser() throws Exception {
+        mvc.perform(get("/bookings/feed")
+                        .header(HEADER, Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private MockHttpServletResponse subscribe(long userId) throws Exception {
+        return mvc.perform(get("/bookings/feed")
+                        .header(HEADER, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private static String await(MockHttpServletResponse feed, String event) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = feed.getContentAsString();
+        while (!content.contains(event) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = feed.getContentAsString();
+        }
+        Assertions.assertTrue(content.contains(event), content);
+        return content;
+    }
+}
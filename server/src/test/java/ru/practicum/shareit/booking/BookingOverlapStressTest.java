@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.AlreadyBusyException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Параллельные заявки на бронирование одной вещи: подтвержденные бронирования не должны
+ * пересекаться, а каждая отклоненная заявка должна пересекаться хотя бы с одним из них.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BookingOverlapStressTest {
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 200;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    private final List<Long> bookerIds = new ArrayList<>();
+    private long itemId;
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    @BeforeEach
+    public void createEntity() {
+        long ownerId = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build()).getId();
+        itemId = itemService.add(ItemDto.builder()
+                .name("item")
+                .description("desc")
+                .available(true)
+                .build(), ownerId).getId();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(userService.add(UserDto.builder()
+                    .name("booker" + i)
+                    .email("booker" + i + "@email.ru")
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    public void clear() {
+        itemService.deleteAll();
+        userService.deleteAll();
+    }
+
+    @Test
+    public void shouldAcceptOnlyOneOfSameSlotRequests() throws Exception {
+        List<BookingRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            requests.add(request(0, 2));
+        }
+
+        List<BookingDto> accepted = run(requests, new ArrayList<>());
+
+        Assertions.assertEquals(1, accepted.size());
+    }
+
+    @Test
+    public void shouldNotAcceptOverlappingBookings() throws Exception {
+        Random random = new Random(42);
+        List<BookingRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(request(random.nextInt(REQUESTS), 1 + random.nextInt(6)));
+        }
+
+        List<BookingRequestDto> rejected = new ArrayList<>();
+        List<BookingDto> accepted = run(requests, rejected);
+
+        Assertions.assertFalse(accepted.isEmpty());
+        for (int i = 0; i < accepted.size(); i++) {
+            for (int j = i + 1; j < accepted.size(); j++) {
+                BookingDto first = accepted.get(i);
+                BookingDto second = accepted.get(j);
+                Assertions.assertFalse(overlaps(first.getStart(), first.getEnd(), second.getStart(), second.getEnd()),
+                        () -> "Пересекаются " + first.getId() + " и " + second.getId());
+            }
+        }
+        for (BookingRequestDto request : rejected) {
+            Assertions.assertTrue(accepted.stream()
+                    .anyMatch(b -> overlaps(b.getStart(), b.getEnd(), request.getStart(), request.getEnd())));
+        }
+    }
+
+    private BookingRequestDto request(int startHour, int hours) {
+        return BookingRequestDto.builder()
+                .itemId(itemId)
+                .start(base.plusHours(startHour))
+                .end(base.plusHours(startHour + hours))
+                .build();
+    }
+
+    private List<BookingDto> run(List<BookingRequestDto> requests, List<BookingRequestDto> rejected) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingDto>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                BookingRequestDto request = requests.get(i);
+                long bookerId = bookerIds.get(i % bookerIds.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return bookingService.add(request, bookerId);
+                    } catch (AlreadyBusyException e) {
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<BookingDto> accepted = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                BookingDto booking = futures.get(i).get();
+                if (booking != null) {
+                    accepted.add(booking);
+                } else rejected.add(requests.get(i));
+            }
+            return accepted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean overlaps(LocalDateTime start, LocalDateTime end, LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && otherStart.isBefore(end);
+    }
+}
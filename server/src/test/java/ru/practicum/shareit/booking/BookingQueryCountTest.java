@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.controller.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.feed.BookingFeedHub;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PageCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Списки бронирований выбираются одним запросом вместе с вещью и арендатором при любом state.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(BookingServiceImpl.class)
+public class BookingQueryCountTest {
+
+    private static final int ITEMS = 3;
+    private static final int BOOKERS = 3;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockBean
+    private ItemDetailsCache itemDetailsCache;
+    @MockBean
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @MockBean
+    private OutboxService outboxService;
+    @MockBean
+    private BookingFeedHub bookingFeedHub;
+    private User owner;
+    private final List<User> bookers = new ArrayList<>();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    public void createEntity() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@email.ru").build());
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userRepository.save(User.builder().name("booker " + i).email("booker" + i + "@email.ru").build()));
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("desc")
+                    .owner(owner)
+                    .available(true)
+                    .build());
+            for (User booker : bookers) {
+                save(item, booker, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+                save(item, booker, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+                save(item, booker, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+                save(item, booker, now.plusDays(3), now.plusDays(4), BookingStatus.WAITING);
+                save(item, booker, now.plusDays(5), now.plusDays(6), BookingStatus.REJECTED);
+            }
+        }
+        entityManager.flush();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    public void getAllBookingsByBookerShouldUseSingleQuery(BookingState state) {
+        long bookerId = bookers.get(0).getId();
+
+        Assertions.assertEquals(2, countQueries(() -> bookingService.getAllBookingsByBooker(bookerId, state.name(), 0, 100)));
+        Assertions.assertEquals(2, countQueries(() -> bookingService.getAllBookingsByBooker(bookerId, state.name(), after(), 100)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    public void getAllBookingsByOwnerShouldUseSingleQuery(BookingState state) {
+        long ownerId = owner.getId();
+
+        Assertions.assertEquals(2, countQueries(() -> bookingService.getAllBookingsByOwner(ownerId, state.name(), 0, 100)));
+        Assertions.assertEquals(2, countQueries(() -> bookingService.getAllBookingsByOwner(ownerId, state.name(), after(), 100)));
+    }
+
+    private void save(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .state(status)
+                .build());
+    }
+
+    private PageCursor after() {
+        return PageCursor.of(now.plusYears(1), Long.MAX_VALUE);
+    }
+
+    private long countQueries(Supplier<List<BookingDto>> call) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingDto> result = call.get();
+        Assertions.assertFalse(result.isEmpty());
+        Assertions.assertTrue(result.stream().allMatch(booking -> booking.getItem().getName() != null
+                && booking.getBooker().getName() != null));
+        return statistics.getPrepareStatementCount();
+    }
+}
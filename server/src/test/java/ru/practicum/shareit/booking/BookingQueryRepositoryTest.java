@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.controller.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRole;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PageCursor;
+import ru.practicum.shareit.util.PaginationAndSortParams;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Единый запрос списка бронирований выбирает для каждой роли и state те же строки и в том же порядке,
+ * что и прямой отбор в памяти, а offset- и keyset-страницы совпадают.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookingQueryRepositoryTest {
+
+    private static final int PAGE = 4;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private User owner;
+    private User booker;
+    private final List<Booking> bookings = new ArrayList<>();
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @BeforeEach
+    public void createEntity() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@email.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@email.ru").build());
+        User other = userRepository.save(User.builder().name("other").email("other@email.ru").build());
+        Item item = itemRepository.save(Item.builder().name("item").description("desc").owner(owner).available(true).build());
+        Item otherItem = itemRepository.save(Item.builder().name("other").description("desc").owner(other).available(true).build());
+        for (BookingStatus status : BookingStatus.values()) {
+            save(item, booker, now.minusDays(3), now.minusDays(2), status);
+            save(item, booker, now.minusDays(1), now.plusDays(1), status);
+            save(item, booker, now.plusDays(1), now.plusDays(2), status);
+            save(item, other, now.plusDays(1), now.plusDays(2), status);
+            save(otherItem, booker, now.minusDays(1), now.plusDays(1), status);
+        }
+        // два бронирования с одинаковым началом: порядок и курсор различают их по id
+        save(item, booker, now.plusDays(1), now.plusDays(3), BookingStatus.WAITING);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    public void shouldSelectBookingsOfStateForBooker(BookingState state) {
+        assertSelects(BookingRole.BOOKER, booker.getId(), state);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    public void shouldSelectBookingsOfStateForOwner(BookingState state) {
+        assertSelects(BookingRole.OWNER, owner.getId(), state);
+    }
+
+    @Test
+    public void shouldReuseQueryPlanForDifferentParameters() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        bookingRepository.findAllByRole(BookingRole.OWNER, owner.getId(), BookingState.CURRENT, now,
+                PaginationAndSortParams.getPageable(0, PAGE));
+        statistics.clear();
+
+        bookingRepository.findAllByRole(BookingRole.OWNER, booker.getId(), BookingState.CURRENT, now.plusDays(1),
+                PaginationAndSortParams.getPageable(PAGE, PAGE));
+        bookingRepository.findAllByRole(BookingRole.OWNER, owner.getId(), BookingState.CURRENT, now.minusDays(1),
+                PaginationAndSortParams.getPageable(0, PAGE * 2));
+
+        Assertions.assertEquals(0, statistics.getQueryPlanCacheMissCount());
+        Assertions.assertEquals(2, statistics.getQueryPlanCacheHitCount());
+    }
+
+    private void assertSelects(BookingRole role, long userId, BookingState state) {
+        Predicate<Booking> byRole = role == BookingRole.OWNER
+                ? booking -> booking.getItem().getOwner().getId() == userId
+                : booking -> booking.getBooker().getId() == userId;
+        List<Long> expected = bookings.stream()
+                .filter(byRole.and(ofState(state)))
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        Assertions.assertFalse(expected.isEmpty());
+
+        List<Long> byOffset = new ArrayList<>();
+        List<Long> byCursor = new ArrayList<>();
+        PageCursor after = null;
+        for (int from = 0; from < expected.size(); from += PAGE) {
+            byOffset.addAll(ids(bookingRepository.findAllByRole(role, userId, state, now,
+                    PaginationAndSortParams.getPageable(from, PAGE))));
+            List<Booking> page = bookingRepository.findAllByRoleAfter(role, userId, state, now, after, PAGE);
+            byCursor.addAll(ids(page));
+            Booking last = page.get(page.size() - 1);
+            after = PageCursor.of(last.getStart(), last.getId());
+        }
+
+        Assertions.assertEquals(expected, byOffset);
+        Assertions.assertEquals(expected, byCursor);
+    }
+
+    private Predicate<Booking> ofState(BookingState state) {
+        switch (state) {
+            case WAITING:
+                return booking -> booking.getState() == BookingStatus.WAITING;
+            case REJECTED:
+                return booking -> booking.getState() == BookingStatus.REJECTED;
+            case CURRENT:
+                return booking -> booking.getStart().isBefore(now) && booking.getEnd().isAfter(now);
+            case PAST:
+                return booking -> booking.getEnd().isBefore(now);
+            case FUTURE:
+                return booking -> booking.getStart().isAfter(now);
+            default:
+                return booking -> true;
+        }
+    }
+
+    private void save(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookings.add(bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .state(status)
+                .build()));
+    }
+
+    private static List<Long> ids(List<Booking> page) {
+        return page.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+}
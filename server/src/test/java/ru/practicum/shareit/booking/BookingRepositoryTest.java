@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,16 +8,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.controller.BookingState;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRole;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.Mapper;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PaginationAndSortParams;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @DataJpaTest
@@ -28,11 +35,13 @@ public class BookingRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManager entityManager;
     private Item item;
     private User owner;
     private User booker;
     private Booking booking;
-    private final LocalDateTime timestamp = LocalDateTime.now();
+    private final LocalDateTime timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
     private final Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
 
     @BeforeEach
@@ -69,6 +78,19 @@ public class BookingRepositoryTest {
 
     }
 
+    @Test
+    public void shouldMapLazyAssociationIdsWithoutInitialization() {
+        entityManager.flush();
+        entityManager.clear();
+        Booking lazyBooking = bookingRepository.findById(booking.getId()).get();
+        Item lazyItem = itemRepository.findById(item.getId()).get();
+
+        Assertions.assertEquals(booker.getId(), Mapper.toShortDto(lazyBooking).getBookerId());
+        Assertions.assertEquals(owner.getId(), Mapper.toDto(lazyItem).getOwnerId());
+        Assertions.assertFalse(Hibernate.isInitialized(lazyBooking.getBooker()));
+        Assertions.assertFalse(Hibernate.isInitialized(lazyItem.getOwner()));
+    }
+
     @Test
     public void shouldGetBookingById() {
         Booking result = bookingRepository.getBookingById(booking.getId(), booker.getId()).get();
@@ -78,14 +100,14 @@ public class BookingRepositoryTest {
 
     @Test
     public void shouldFindAllByBookerId() {
-        List<Booking> result = bookingRepository.findAllByBookerId(booker.getId(), pageRequest);
+        List<Booking> result = bookingRepository.findAllByRole(BookingRole.BOOKER, booker.getId(), BookingState.ALL, timestamp, pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
 
     @Test
     public void shouldFindAllByBookerIdAndStateWaiting() {
-        List<Booking> result = bookingRepository.findAllByBookerIdAndState(booker.getId(), BookingStatus.WAITING, pageRequest);
+        List<Booking> result = bookingRepository.findAllByRole(BookingRole.BOOKER, booker.getId(), BookingState.WAITING, timestamp, pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -94,7 +116,7 @@ public class BookingRepositoryTest {
     public void shouldFindAllByBookerIdAndStateRejected() {
         booking.setState(BookingStatus.REJECTED);
         bookingRepository.save(booking);
-        List<Booking> result = bookingRepository.findAllByBookerIdAndState(booker.getId(), BookingStatus.REJECTED, pageRequest);
+        List<Booking> result = bookingRepository.findAllByRole(BookingRole.BOOKER, booker.getId(), BookingState.REJECTED, timestamp, pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -102,10 +124,7 @@ public class BookingRepositoryTest {
     @Test
     public void shouldFindAllByBookerIdCurrent() {
         List<Booking> result = bookingRepository
-                .findAllByBookerIdAndStartIsBeforeAndEndIsAfter(booker.getId(),
-                        timestamp.plusSeconds(1),
-                        timestamp.plusSeconds(2),
-                        pageRequest);
+                .findAllByRole(BookingRole.BOOKER, booker.getId(), BookingState.CURRENT, timestamp.plusSeconds(1), pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -113,10 +132,7 @@ public class BookingRepositoryTest {
     @Test
     public void shouldFindAllByBookerIdPast() {
         List<Booking> result = bookingRepository
-                .findAllByBookerIdAndStartIsBeforeAndEndIsBefore(booker.getId(),
-                        timestamp.plusSeconds(1),
-                        timestamp.plusMinutes(2),
-                        pageRequest);
+                .findAllByRole(BookingRole.BOOKER, booker.getId(), BookingState.PAST, timestamp.plusMinutes(2), pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -124,9 +140,45 @@ public class BookingRepositoryTest {
     @Test
     public void shouldFindAllByBookerIdFuture() {
         List<Booking> result = bookingRepository
-                .findAllByBookerIdAndStartIsAfter(booker.getId(),
-                        timestamp.minusMinutes(1),
-                        pageRequest);
+                .findAllByRole(BookingRole.BOOKER, booker.getId(), BookingState.FUTURE, timestamp.minusMinutes(1), pageRequest);
+
+        Assertions.assertEquals(List.of(booking), result);
+    }
+
+    @Test
+    public void shouldFindAllByBookerIdAfterCursor() {
+        Booking earlier = bookingRepository.save(Booking.builder()
+                .start(timestamp.minusDays(1))
+                .end(timestamp.minusHours(1))
+                .item(item)
+                .booker(booker)
+                .state(BookingStatus.APPROVED)
+                .build());
+
+        List<Booking> firstPage = bookingRepository.findAllByRoleAfter(BookingRole.BOOKER, booker.getId(),
+                BookingState.ALL, timestamp, null, 1);
+        List<Booking> secondPage = bookingRepository.findAllByRoleAfter(BookingRole.BOOKER, booker.getId(),
+                BookingState.ALL, timestamp, PageCursor.of(booking.getStart(), booking.getId()), 1);
+        List<Booking> lastPage = bookingRepository.findAllByRoleAfter(BookingRole.BOOKER, booker.getId(),
+                BookingState.ALL, timestamp, PageCursor.of(earlier.getStart(), earlier.getId()), 1);
+
+        Assertions.assertEquals(List.of(booking), firstPage);
+        Assertions.assertEquals(List.of(earlier), secondPage);
+        Assertions.assertEquals(List.of(), lastPage);
+    }
+
+    @Test
+    public void shouldFindAllByItemOwnerIdAfterCursorWithState() {
+        bookingRepository.save(Booking.builder()
+                .start(timestamp.minusDays(1))
+                .end(timestamp.minusHours(1))
+                .item(item)
+                .booker(booker)
+                .state(BookingStatus.APPROVED)
+                .build());
+
+        List<Booking> result = bookingRepository.findAllByRoleAfter(BookingRole.OWNER, owner.getId(),
+                BookingState.WAITING, timestamp, PageCursor.of(timestamp.plusDays(1), 0), 10);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -140,14 +192,14 @@ public class BookingRepositoryTest {
 
     @Test
     public void shouldFindAllByOwnerId() {
-        List<Booking> result = bookingRepository.findAllByItemOwnerId(owner.getId(), pageRequest);
+        List<Booking> result = bookingRepository.findAllByRole(BookingRole.OWNER, owner.getId(), BookingState.ALL, timestamp, pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
 
     @Test
     public void shouldFindAllByOwnerIdAndStateWaiting() {
-        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndState(owner.getId(), BookingStatus.WAITING, pageRequest);
+        List<Booking> result = bookingRepository.findAllByRole(BookingRole.OWNER, owner.getId(), BookingState.WAITING, timestamp, pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -156,7 +208,7 @@ public class BookingRepositoryTest {
     public void shouldFindAllByOwnerIdAndStateRejected() {
         booking.setState(BookingStatus.REJECTED);
         bookingRepository.save(booking);
-        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndState(owner.getId(), BookingStatus.REJECTED, pageRequest);
+        List<Booking> result = bookingRepository.findAllByRole(BookingRole.OWNER, owner.getId(), BookingState.REJECTED, timestamp, pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -164,10 +216,7 @@ public class BookingRepositoryTest {
     @Test
     public void shouldFindAllByOwnerIdCurrent() {
         List<Booking> result = bookingRepository
-                .findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(owner.getId(),
-                        timestamp.plusSeconds(1),
-                        timestamp.plusSeconds(2),
-                        pageRequest);
+                .findAllByRole(BookingRole.OWNER, owner.getId(), BookingState.CURRENT, timestamp.plusSeconds(1), pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -175,10 +224,7 @@ public class BookingRepositoryTest {
     @Test
     public void shouldFindAllByOwnerIdPast() {
         List<Booking> result = bookingRepository
-                .findAllByItemOwnerIdAndStartIsBeforeAndEndIsBefore(owner.getId(),
-                        timestamp.plusSeconds(1),
-                        timestamp.plusMinutes(2),
-                        pageRequest);
+                .findAllByRole(BookingRole.OWNER, owner.getId(), BookingState.PAST, timestamp.plusMinutes(2), pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -186,9 +232,7 @@ public class BookingRepositoryTest {
     @Test
     public void shouldFindAllByOwnerIdFuture() {
         List<Booking> result = bookingRepository
-                .findAllByItemOwnerIdAndStartIsAfter(owner.getId(),
-                        timestamp.minusMinutes(1),
-                        pageRequest);
+                .findAllByRole(BookingRole.OWNER, owner.getId(), BookingState.FUTURE, timestamp.minusMinutes(1), pageRequest);
 
         Assertions.assertEquals(List.of(booking), result);
     }
@@ -213,6 +257,39 @@ public class BookingRepositoryTest {
         Assertions.assertEquals(booking, result);
     }
 
+    @Test
+    public void shouldFindLastAndNextByItemIds() {
+        Booking nextBooking = bookingRepository.save(Booking.builder()
+                .start(timestamp.plusDays(1))
+                .end(timestamp.plusDays(2))
+                .item(item)
+                .booker(booker)
+                .state(BookingStatus.WAITING)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(timestamp.plusDays(3))
+                .end(timestamp.plusDays(4))
+                .item(item)
+                .booker(booker)
+                .state(BookingStatus.WAITING)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(timestamp.plusHours(1))
+                .end(timestamp.plusHours(2))
+                .item(item)
+                .booker(booker)
+                .state(BookingStatus.REJECTED)
+                .build());
+
+        List<Booking> result = bookingRepository
+                .findLastAndNextByItemIds(List.of(item.getId()),
+                        timestamp.plusSeconds(5),
+                        BookingStatus.REJECTED);
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertTrue(result.containsAll(List.of(booking, nextBooking)));
+    }
+
     @Test
     public void shouldFindFirstByItemIdAndBookerIdAndStateAndEndIsBefore() {
         Booking result = bookingRepository
@@ -233,7 +310,7 @@ public class BookingRepositoryTest {
                 .state(BookingStatus.WAITING)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.save(booking2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.saveAndFlush(booking2));
     }
 
     @Test
@@ -245,7 +322,7 @@ public class BookingRepositoryTest {
                 .state(BookingStatus.WAITING)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.save(booking2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.saveAndFlush(booking2));
     }
 
     @Test
@@ -257,7 +334,7 @@ public class BookingRepositoryTest {
                 .state(BookingStatus.WAITING)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.save(booking2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.saveAndFlush(booking2));
     }
 
     @Test
@@ -269,7 +346,7 @@ public class BookingRepositoryTest {
                 .state(BookingStatus.WAITING)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.save(booking2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.saveAndFlush(booking2));
     }
 
     @Test
@@ -281,6 +358,6 @@ public class BookingRepositoryTest {
                 .booker(booker)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.save(booking2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.saveAndFlush(booking2));
     }
 }
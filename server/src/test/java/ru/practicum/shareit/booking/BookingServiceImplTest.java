@@ -9,20 +9,28 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.controller.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.feed.BookingFeedHub;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRole;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exception.AlreadyBusyException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.Mapper;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PaginationAndSortParams;
 
 import java.time.LocalDateTime;
@@ -41,6 +49,14 @@ public class BookingServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private BookingFeedHub bookingFeedHub;
     @InjectMocks
     private BookingServiceImpl bookingService;
     private User owner;
@@ -135,11 +151,12 @@ public class BookingServiceImplTest {
 
     @Test
     public void shouldReturnBookingsByBookerStateAll() {
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(0, 1, "start");
+        Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
 
-        when(bookingRepository.findAllByBookerId(bookerId, pageRequest))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.BOOKER), Mockito.eq(bookerId), Mockito.eq(BookingState.ALL),
+                Mockito.any(LocalDateTime.class), Mockito.eq(pageRequest)))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -148,11 +165,12 @@ public class BookingServiceImplTest {
 
     @Test
     public void shouldReturnBookingsByBookerStateWaiting() {
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(0, 1, "start");
+        Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
 
-        when(bookingRepository.findAllByBookerIdAndState(bookerId, BookingStatus.WAITING, pageRequest))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.BOOKER), Mockito.eq(bookerId), Mockito.eq(BookingState.WAITING),
+                Mockito.any(LocalDateTime.class), Mockito.eq(pageRequest)))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -162,11 +180,12 @@ public class BookingServiceImplTest {
     @Test
     public void shouldReturnBookingsByBookerStateRejected() {
         booking.setState(BookingStatus.REJECTED);
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(0, 1, "start");
+        Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
 
-        when(bookingRepository.findAllByBookerIdAndState(bookerId, BookingStatus.REJECTED, pageRequest))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.BOOKER), Mockito.eq(bookerId), Mockito.eq(BookingState.REJECTED),
+                Mockito.any(LocalDateTime.class), Mockito.eq(pageRequest)))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -178,7 +197,8 @@ public class BookingServiceImplTest {
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
 
-        when(bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any()))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.BOOKER), Mockito.eq(bookerId), Mockito.eq(BookingState.CURRENT),
+                Mockito.any(LocalDateTime.class), Mockito.eq(PaginationAndSortParams.getPageable(0, 1))))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -190,7 +210,8 @@ public class BookingServiceImplTest {
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
 
-        when(bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsBefore(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any()))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.BOOKER), Mockito.eq(bookerId), Mockito.eq(BookingState.PAST),
+                Mockito.any(LocalDateTime.class), Mockito.eq(PaginationAndSortParams.getPageable(0, 1))))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -202,7 +223,8 @@ public class BookingServiceImplTest {
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
 
-        when(bookingRepository.findAllByBookerIdAndStartIsAfter(Mockito.anyLong(), Mockito.any(), Mockito.any()))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.BOOKER), Mockito.eq(bookerId), Mockito.eq(BookingState.FUTURE),
+                Mockito.any(LocalDateTime.class), Mockito.eq(PaginationAndSortParams.getPageable(0, 1))))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -218,13 +240,53 @@ public class BookingServiceImplTest {
         Assertions.assertEquals("не найден", exception.getMessage());
     }
 
+    @Test
+    public void shouldReturnBookingsByBookerAfterCursor() {
+        PageCursor cursor = PageCursor.of(timestamp, 99);
+        when(userRepository.findById(bookerId))
+                .thenReturn(Optional.ofNullable(booker));
+
+        when(bookingRepository.findAllByRoleAfter(Mockito.eq(BookingRole.BOOKER), Mockito.eq(bookerId), Mockito.eq(BookingState.PAST),
+                Mockito.any(LocalDateTime.class), Mockito.eq(cursor), Mockito.eq(1)))
+                .thenReturn(List.of(booking));
+
+        Assertions.assertEquals(List.of(bookingDto),
+                bookingService.getAllBookingsByBooker(bookerId, "PAST", cursor, 1));
+    }
+
+    @Test
+    public void shouldReturnBookingsByOwnerAfterCursor() {
+        PageCursor cursor = PageCursor.of(timestamp, 99);
+        when(userRepository.findById(ownerId))
+                .thenReturn(Optional.ofNullable(owner));
+
+        when(bookingRepository.findAllByRoleAfter(Mockito.eq(BookingRole.OWNER), Mockito.eq(ownerId), Mockito.eq(BookingState.FUTURE),
+                Mockito.any(LocalDateTime.class), Mockito.eq(cursor), Mockito.eq(1)))
+                .thenReturn(List.of(booking));
+
+        Assertions.assertEquals(List.of(bookingDto),
+                bookingService.getAllBookingsByOwner(ownerId, "FUTURE", cursor, 1));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenCursorWithoutTimestamp() {
+        when(userRepository.findById(ownerId))
+                .thenReturn(Optional.ofNullable(owner));
+
+        final ValidationException exception = Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookingsByOwner(ownerId, "ALL", PageCursor.of(99), 1));
+
+        Assertions.assertEquals("after", exception.getParameter());
+    }
+
     @Test
     public void shouldReturnBookingsByOwnerStateAll() {
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(0, 1, "start");
+        Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
         when(userRepository.findById(ownerId))
                 .thenReturn(Optional.ofNullable(owner));
 
-        when(bookingRepository.findAllByItemOwnerId(ownerId, pageRequest))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.OWNER), Mockito.eq(ownerId), Mockito.eq(BookingState.ALL),
+                Mockito.any(LocalDateTime.class), Mockito.eq(pageRequest)))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -233,11 +295,12 @@ public class BookingServiceImplTest {
 
     @Test
     public void shouldReturnBookingsByOwnerStateWaiting() {
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(0, 1, "start");
+        Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
         when(userRepository.findById(ownerId))
                 .thenReturn(Optional.ofNullable(owner));
 
-        when(bookingRepository.findAllByItemOwnerIdAndState(ownerId, BookingStatus.WAITING, pageRequest))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.OWNER), Mockito.eq(ownerId), Mockito.eq(BookingState.WAITING),
+                Mockito.any(LocalDateTime.class), Mockito.eq(pageRequest)))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -247,11 +310,12 @@ public class BookingServiceImplTest {
     @Test
     public void shouldReturnBookingsByOwnerStateRejected() {
         booking.setState(BookingStatus.REJECTED);
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(0, 1, "start");
+        Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
         when(userRepository.findById(ownerId))
                 .thenReturn(Optional.ofNullable(owner));
 
-        when(bookingRepository.findAllByItemOwnerIdAndState(ownerId, BookingStatus.REJECTED, pageRequest))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.OWNER), Mockito.eq(ownerId), Mockito.eq(BookingState.REJECTED),
+                Mockito.any(LocalDateTime.class), Mockito.eq(pageRequest)))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -263,7 +327,8 @@ public class BookingServiceImplTest {
         when(userRepository.findById(ownerId))
                 .thenReturn(Optional.ofNullable(owner));
 
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any()))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.OWNER), Mockito.eq(ownerId), Mockito.eq(BookingState.CURRENT),
+                Mockito.any(LocalDateTime.class), Mockito.eq(PaginationAndSortParams.getPageable(0, 1))))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -275,7 +340,8 @@ public class BookingServiceImplTest {
         when(userRepository.findById(ownerId))
                 .thenReturn(Optional.ofNullable(owner));
 
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsBefore(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any()))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.OWNER), Mockito.eq(ownerId), Mockito.eq(BookingState.PAST),
+                Mockito.any(LocalDateTime.class), Mockito.eq(PaginationAndSortParams.getPageable(0, 1))))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -287,7 +353,8 @@ public class BookingServiceImplTest {
         when(userRepository.findById(ownerId))
                 .thenReturn(Optional.ofNullable(owner));
 
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(Mockito.anyLong(), Mockito.any(), Mockito.any()))
+        when(bookingRepository.findAllByRole(Mockito.eq(BookingRole.OWNER), Mockito.eq(ownerId), Mockito.eq(BookingState.FUTURE),
+                Mockito.any(LocalDateTime.class), Mockito.eq(PaginationAndSortParams.getPageable(0, 1))))
                 .thenReturn(List.of(booking));
 
         Assertions.assertEquals(List.of(bookingDto),
@@ -307,12 +374,32 @@ public class BookingServiceImplTest {
     public void shouldAddBooking() {
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(itemId))
+        when(itemRepository.findByIdForUpdate(itemId))
                 .thenReturn(Optional.ofNullable(item));
         when(bookingRepository.save(Mockito.any(Booking.class)))
                 .thenReturn(booking);
 
         Assertions.assertEquals(bookingDto, bookingService.add(bookingRequestDto, bookerId));
+        verify(outboxService).record(OutboxEventType.BOOKING_CREATED, bookingDto.getId(), bookingDto);
+        verify(bookingFeedHub).publish(ownerId, bookingDto);
+    }
+
+    @Test
+    public void shouldThrowExceptionAddBookingWhenOverlapping() {
+        when(userRepository.findById(bookerId))
+                .thenReturn(Optional.ofNullable(booker));
+        when(itemRepository.findByIdForUpdate(itemId))
+                .thenReturn(Optional.ofNullable(item));
+        when(bookingRepository.existsByItemIdAndStateInAndStartBeforeAndEndAfter(Mockito.eq(itemId), Mockito.any(),
+                Mockito.eq(bookingRequestDto.getEnd()), Mockito.eq(bookingRequestDto.getStart())))
+                .thenReturn(true);
+
+        final AlreadyBusyException exception = Assertions.assertThrows(AlreadyBusyException.class,
+                () -> bookingService.add(bookingRequestDto, bookerId));
+
+        Assertions.assertEquals("item", exception.getParameter());
+        verify(bookingRepository, Mockito.never())
+                .save(Mockito.any(Booking.class));
     }
 
     @Test
@@ -341,7 +428,7 @@ public class BookingServiceImplTest {
     public void shouldThrowExceptionAddBookingWhenBookerIdEqOwnerId() {
         when(userRepository.findById(ownerId))
                 .thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(itemId))
+        when(itemRepository.findByIdForUpdate(itemId))
                 .thenReturn(Optional.ofNullable(item));
 
         final NotFoundException exception = Assertions.assertThrows(NotFoundException.class,
@@ -356,7 +443,7 @@ public class BookingServiceImplTest {
         item.setAvailable(false);
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(itemId))
+        when(itemRepository.findByIdForUpdate(itemId))
                 .thenReturn(Optional.ofNullable(item));
 
         final AlreadyBusyException exception = Assertions.assertThrows(AlreadyBusyException.class,
@@ -371,7 +458,7 @@ public class BookingServiceImplTest {
         bookingRequestDto.setStart(null);
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(itemId))
+        when(itemRepository.findByIdForUpdate(itemId))
                 .thenReturn(Optional.ofNullable(item));
 
         final ValidationException exception = Assertions.assertThrows(ValidationException.class,
@@ -386,7 +473,7 @@ public class BookingServiceImplTest {
         bookingRequestDto.setEnd(null);
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(itemId))
+        when(itemRepository.findByIdForUpdate(itemId))
                 .thenReturn(Optional.ofNullable(item));
 
         final ValidationException exception = Assertions.assertThrows(ValidationException.class,
@@ -401,7 +488,7 @@ public class BookingServiceImplTest {
         bookingRequestDto.setEnd(timestamp.minusSeconds(1));
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(itemId))
+        when(itemRepository.findByIdForUpdate(itemId))
                 .thenReturn(Optional.ofNullable(item));
 
         final ValidationException exception = Assertions.assertThrows(ValidationException.class,
@@ -416,7 +503,7 @@ public class BookingServiceImplTest {
         bookingRequestDto.setEnd(timestamp.minusMinutes(1));
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(itemId))
+        when(itemRepository.findByIdForUpdate(itemId))
                 .thenReturn(Optional.ofNullable(item));
 
         final ValidationException exception = Assertions.assertThrows(ValidationException.class,
@@ -431,7 +518,7 @@ public class BookingServiceImplTest {
         bookingRequestDto.setEnd(timestamp);
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(itemId))
+        when(itemRepository.findByIdForUpdate(itemId))
                 .thenReturn(Optional.ofNullable(item));
 
         final ValidationException exception = Assertions.assertThrows(ValidationException.class,
@@ -446,7 +533,7 @@ public class BookingServiceImplTest {
         bookingRequestDto.setStart(timestamp.minusMinutes(1));
         when(userRepository.findById(bookerId))
                 .thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(itemId))
+        when(itemRepository.findByIdForUpdate(itemId))
                 .thenReturn(Optional.ofNullable(item));
 
         final ValidationException exception = Assertions.assertThrows(ValidationException.class,
@@ -477,6 +564,9 @@ public class BookingServiceImplTest {
 
         verify(bookingRepository, Mockito.times(1))
                 .save(Mockito.any(Booking.class));
+        verify(itemDetailsCache, Mockito.times(1))
+                .evict(item.getId());
+        verify(outboxService).record(Mockito.eq(OutboxEventType.BOOKING_APPROVED), Mockito.eq(bookingId), Mockito.any());
     }
 
     @Test
@@ -500,6 +590,7 @@ public class BookingServiceImplTest {
 
         verify(bookingRepository, Mockito.times(1))
                 .save(Mockito.any(Booking.class));
+        verify(outboxService).record(Mockito.eq(OutboxEventType.BOOKING_REJECTED), Mockito.eq(bookingId), Mockito.any());
     }
 
     @Test
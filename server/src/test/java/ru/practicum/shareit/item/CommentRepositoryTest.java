@@ -72,6 +72,13 @@ public class CommentRepositoryTest {
         Assertions.assertEquals(List.of(comment), comments);
     }
 
+    @Test
+    public void shouldReturnCommentsByItemIds() {
+        List<Comment> comments = commentRepository.findAllByItemIds(List.of(item.getId(), item.getId() + 1));
+
+        Assertions.assertEquals(List.of(comment), comments);
+    }
+
     @Test
     public void shouldDeleteAllByItemId() {
         commentRepository.deleteAllByItemId(item.getId());
@@ -89,7 +96,7 @@ public class CommentRepositoryTest {
                 .created(timestamp)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> commentRepository.save(comment2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> commentRepository.saveAndFlush(comment2));
     }
 
     @Test
@@ -100,7 +107,7 @@ public class CommentRepositoryTest {
                 .created(timestamp)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> commentRepository.save(comment2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> commentRepository.saveAndFlush(comment2));
     }
 
     @Test
@@ -111,7 +118,7 @@ public class CommentRepositoryTest {
                 .created(timestamp)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> commentRepository.save(comment2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> commentRepository.saveAndFlush(comment2));
     }
 
     @Test
@@ -122,6 +129,6 @@ public class CommentRepositoryTest {
                 .author(author)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> commentRepository.save(comment2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> commentRepository.saveAndFlush(comment2));
     }
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.DatabaseItemSearchEngine;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DatabaseItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private DatabaseItemSearchEngine searchEngine;
+
+    @Test
+    public void shouldReadOnlyRequestedPageOfFreeItems() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(1);
+        Item drill = Item.builder().id(1).name("drill").available(true).build();
+        when(itemRepository.searchFreeByText(eq("drill"), eq(ItemAvailabilityIndex.BUSY_STATES), eq(start), eq(end),
+                argThat(page -> page.getOffset() == 10 && page.getPageSize() == 10)))
+                .thenReturn(List.of(drill));
+
+        Assertions.assertEquals(List.of(drill), searchEngine.searchFree("drill", start, end, 10, 10));
+        verify(itemRepository).searchFreeByText(eq("drill"), eq(ItemAvailabilityIndex.BUSY_STATES), eq(start), eq(end),
+                argThat(page -> page.getOffset() == 10));
+        verifyNoMoreInteractions(itemRepository);
+    }
+}
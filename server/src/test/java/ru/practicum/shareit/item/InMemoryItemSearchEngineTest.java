@@ -0,0 +1,210 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+    private Item drill;
+    private Item screwdriver;
+    private Item saw;
+
+    @BeforeEach
+    public void createEntity() {
+        drill = Item.builder()
+                .id(1)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build();
+
+        screwdriver = Item.builder()
+                .id(2)
+                .name("Отвертка")
+                .description("Аккумуляторная дрель-отвертка")
+                .available(true)
+                .build();
+
+        saw = Item.builder()
+                .id(3)
+                .name("Пила")
+                .description("Дрель не прилагается")
+                .available(false)
+                .build();
+
+        when(itemRepository.findAll())
+                .thenReturn(List.of(drill, screwdriver, saw));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    public void shouldFindBySubstringRankingNameMatchesFirst() {
+        when(itemRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(screwdriver, drill));
+
+        Assertions.assertEquals(List.of(drill, screwdriver), searchEngine.search("дрель", 0, 10));
+    }
+
+    @Test
+    public void shouldFindByShortQuery() {
+        when(itemRepository.findAllById(List.of(2L)))
+                .thenReturn(List.of(screwdriver));
+
+        Assertions.assertEquals(List.of(screwdriver), searchEngine.search("тв", 0, 10));
+    }
+
+    @Test
+    public void shouldFindBySingleCharAtTheEnd() {
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(drill));
+
+        Assertions.assertEquals(List.of(drill), searchEngine.search("ль", id -> id == drill.getId(), 0, 10));
+        Assertions.assertEquals(List.of(), searchEngine.search("щ", 0, 10));
+    }
+
+    @Test
+    public void shouldApplyFromAndSize() {
+        when(itemRepository.findAllById(List.of(2L)))
+                .thenReturn(List.of(screwdriver));
+
+        Assertions.assertEquals(List.of(screwdriver), searchEngine.search("дрель", 1, 1));
+    }
+
+    @Test
+    public void shouldApplyFilterBeforeFromAndSize() {
+        when(itemRepository.findAllById(List.of(2L)))
+                .thenReturn(List.of(screwdriver));
+
+        Assertions.assertEquals(List.of(screwdriver), searchEngine.search("дрель", id -> id != drill.getId(), 0, 1));
+    }
+
+    @Test
+    public void shouldSearchFreeByAvailabilityIndex() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(1);
+        when(itemAvailabilityIndex.isFree(drill.getId(), start, end))
+                .thenReturn(false);
+        when(itemAvailabilityIndex.isFree(screwdriver.getId(), start, end))
+                .thenReturn(true);
+        when(itemRepository.findAllById(List.of(2L)))
+                .thenReturn(List.of(screwdriver));
+
+        Assertions.assertEquals(List.of(screwdriver), searchEngine.searchFree("дрель", start, end, 0, 10));
+    }
+
+    @Test
+    public void shouldStopFilteringWhenSizeReached() {
+        List<Long> checked = new ArrayList<>();
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(drill));
+
+        Assertions.assertEquals(List.of(drill), searchEngine.search("дрель", id -> checked.add(id), 0, 1));
+        Assertions.assertEquals(List.of(drill.getId()), checked);
+    }
+
+    @Test
+    public void shouldNotFindUnavailableOrUnknown() {
+        Assertions.assertEquals(List.of(), searchEngine.search("пила", 0, 10));
+        Assertions.assertEquals(List.of(), searchEngine.search("молоток", 0, 10));
+
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    public void shouldReindexAndRemove() {
+        drill.setName("Перфоратор");
+        drill.setDescription("Мощный");
+        searchEngine.index(drill);
+        searchEngine.remove(screwdriver.getId());
+
+        Assertions.assertEquals(List.of(), searchEngine.search("дрель", 0, 10));
+
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(drill));
+
+        Assertions.assertEquals(List.of(drill), searchEngine.search("перфо", 0, 10));
+
+        searchEngine.clear();
+
+        Assertions.assertEquals(List.of(), searchEngine.search("перфо", 0, 10));
+    }
+
+    @Test
+    public void shouldApplyChangesOnlyAfterCommit() {
+        Item hammer = Item.builder()
+                .id(4)
+                .name("Молоток")
+                .description("Слесарный")
+                .available(true)
+                .build();
+
+        complete(() -> searchEngine.index(hammer), TransactionSynchronization.STATUS_ROLLED_BACK);
+        complete(() -> searchEngine.remove(drill.getId()), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertEquals(List.of(), searchEngine.search("молоток", 0, 10));
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(drill));
+        Assertions.assertEquals(List.of(drill), searchEngine.search("простая", 0, 10));
+
+        complete(() -> searchEngine.index(hammer), TransactionSynchronization.STATUS_COMMITTED);
+        when(itemRepository.findAllById(List.of(4L)))
+                .thenReturn(List.of(hammer));
+
+        Assertions.assertEquals(List.of(hammer), searchEngine.search("молоток", 0, 10));
+    }
+
+    @Test
+    public void shouldIndexBatchWithSingleChangeAfterCommit() {
+        Item hammer = Item.builder().id(4).name("Молоток").description("Слесарный").available(true).build();
+        Item saw = Item.builder().id(5).name("Пила").description("Ножовка").available(false).build();
+
+        complete(() -> searchEngine.indexAll(List.of(hammer, saw)), TransactionSynchronization.STATUS_COMMITTED);
+        when(itemRepository.findAllById(List.of(4L)))
+                .thenReturn(List.of(hammer));
+
+        Assertions.assertEquals(List.of(hammer), searchEngine.search("молоток", 0, 10));
+        Assertions.assertEquals(List.of(), searchEngine.search("пила", 0, 10));
+    }
+
+    private static void complete(Runnable action, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            Assertions.assertEquals(1, synchronizations.size());
+            synchronizations.forEach(synchronization -> {
+                if (status == TransactionSynchronization.STATUS_COMMITTED) synchronization.afterCommit();
+                synchronization.afterCompletion(status);
+            });
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
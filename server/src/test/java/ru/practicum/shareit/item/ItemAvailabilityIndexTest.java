@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.availability.BookingInterval;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ItemAvailabilityIndexTest {
+
+    private static final long ITEM_ID = 1;
+    private static final long OTHER_ITEM_ID = 2;
+
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository);
+    private final LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @BeforeEach
+    public void setUp() {
+        Mockito.when(bookingRepository.findIntervalsByStateInEndingAfter(Mockito.eq(ItemAvailabilityIndex.BUSY_STATES),
+                Mockito.any())).thenReturn(List.of(
+                new BookingInterval(ITEM_ID, 1, day(1), day(2)),
+                new BookingInterval(ITEM_ID, 2, day(2), day(3)),
+                new BookingInterval(ITEM_ID, 3, day(5), day(6)),
+                new BookingInterval(OTHER_ITEM_ID, 4, day(1), day(9))));
+        index.rebuild();
+    }
+
+    @Test
+    public void shouldMergeAdjacentBookings() {
+        Assertions.assertEquals(List.of(slot(day(1), day(3)), slot(day(5), day(6))), index.busy(ITEM_ID, day(0), day(10)));
+    }
+
+    @Test
+    public void shouldClipBusySlotsByRange() {
+        Assertions.assertEquals(List.of(slot(day(2).plusHours(12), day(3)), slot(day(5), day(5).plusHours(1))),
+                index.busy(ITEM_ID, day(2).plusHours(12), day(5).plusHours(1)));
+        Assertions.assertTrue(index.busy(ITEM_ID, day(3), day(5)).isEmpty());
+    }
+
+    @Test
+    public void shouldCheckRangeAsHalfOpen() {
+        Assertions.assertTrue(index.isFree(ITEM_ID, day(3), day(5)));
+        Assertions.assertTrue(index.isFree(ITEM_ID, day(0), day(1)));
+        Assertions.assertTrue(index.isFree(ITEM_ID, day(6), day(7)));
+        Assertions.assertFalse(index.isFree(ITEM_ID, day(4), day(5).plusSeconds(1)));
+        Assertions.assertFalse(index.isFree(ITEM_ID, day(2).minusHours(1), day(2).plusHours(1)));
+        Assertions.assertFalse(index.isFree(ITEM_ID, day(0), day(10)));
+        Assertions.assertTrue(index.isFree(3, day(0), day(10)));
+    }
+
+    @Test
+    public void shouldAddAndRemoveBookings() {
+        index.add(booking(10, ITEM_ID, day(3), day(5)));
+
+        Assertions.assertEquals(List.of(slot(day(1), day(6))), index.busy(ITEM_ID, day(0), day(10)));
+
+        index.remove(ITEM_ID, 2);
+
+        Assertions.assertEquals(List.of(slot(day(1), day(2)), slot(day(3), day(6))), index.busy(ITEM_ID, day(0), day(10)));
+        Assertions.assertTrue(index.isFree(ITEM_ID, day(2), day(3)));
+    }
+
+    @Test
+    public void shouldKeepInnerBookingWhenOuterRemoved() {
+        index.add(booking(10, OTHER_ITEM_ID, day(3), day(4)));
+
+        index.remove(OTHER_ITEM_ID, 4);
+
+        Assertions.assertEquals(List.of(slot(day(3), day(4))), index.busy(OTHER_ITEM_ID, day(0), day(10)));
+    }
+
+    @Test
+    public void shouldRemoveBookingsOfBookerAndItems() {
+        index.removeAll(List.of(new BookingInterval(ITEM_ID, 1, day(1), day(2)),
+                new BookingInterval(ITEM_ID, 3, day(5), day(6))));
+
+        Assertions.assertEquals(List.of(slot(day(2), day(3))), index.busy(ITEM_ID, day(0), day(10)));
+
+        index.removeItems(List.of(ITEM_ID));
+
+        Assertions.assertTrue(index.isFree(ITEM_ID, day(0), day(10)));
+        Assertions.assertFalse(index.isFree(OTHER_ITEM_ID, day(0), day(10)));
+
+        index.clear();
+
+        Assertions.assertTrue(index.isFree(OTHER_ITEM_ID, day(0), day(10)));
+    }
+
+    @Test
+    public void shouldPruneEndedBookings() {
+        index.prune(day(3));
+
+        Assertions.assertEquals(List.of(slot(day(5), day(6))), index.busy(ITEM_ID, day(0), day(10)));
+        Assertions.assertFalse(index.isFree(OTHER_ITEM_ID, day(0), day(10)));
+
+        index.prune(day(9));
+
+        Assertions.assertTrue(index.isFree(ITEM_ID, day(0), day(10)));
+        Assertions.assertTrue(index.isFree(OTHER_ITEM_ID, day(0), day(10)));
+    }
+
+    private LocalDateTime day(int days) {
+        return day.plusDays(days);
+    }
+
+    private static TimeSlotDto slot(LocalDateTime start, LocalDateTime end) {
+        return new TimeSlotDto(start, end);
+    }
+
+    private static Booking booking(long id, long itemId, LocalDateTime start, LocalDateTime end) {
+        Item item = new Item();
+        item.setId(itemId);
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .start(start)
+                .end(end)
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.SqlStatementsInterceptor;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Календарь занятости обновляется бронированием и отклонением и отдается без запросов к бронированиям,
+ * поиск свободных вещей фильтрует совпадения по тому же календарю.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ItemAvailabilityTest {
+
+    private static final String URI = "/items/{itemId}/availability";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    private final LocalDateTime day = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(2);
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    public void createEntity() {
+        ownerId = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build()).getId();
+        bookerId = userService.add(UserDto.builder().name("booker").email("booker@email.ru").build()).getId();
+        itemId = itemService.add(ItemDto.builder().name("drill").description("desc").available(true).build(), ownerId).getId();
+    }
+
+    @AfterEach
+    public void clear() {
+        userService.deleteAll();
+    }
+
+    @Test
+    public void shouldReturnFreeWindowsBetweenBookings() throws Exception {
+        book(day(1), day(2));
+        long rejected = book(day(2), day(3));
+        book(day(4), day(5));
+
+        ItemAvailabilityDto availability = availability(day(0), day(6));
+
+        Assertions.assertEquals(List.of(slot(day(1), day(3)), slot(day(4), day(5))), availability.getBusy());
+        Assertions.assertEquals(List.of(slot(day(0), day(1)), slot(day(3), day(4)), slot(day(5), day(6))),
+                availability.getFree());
+
+        bookingService.setBookingApprove(rejected, ownerId, false);
+
+        Assertions.assertEquals(List.of(slot(day(0), day(1)), slot(day(2), day(4)), slot(day(5), day(6))),
+                availability(day(0), day(6)).getFree());
+    }
+
+    @Test
+    public void shouldNotQueryBookings() throws Exception {
+        book(day(1), day(2));
+        DistributionSummary before = registry.find(SqlStatementsInterceptor.METRIC)
+                .tags("method", "GET", "uri", URI)
+                .summary();
+        double total = before == null ? 0 : before.totalAmount();
+
+        availability(day(0), day(6));
+
+        DistributionSummary after = registry.get(SqlStatementsInterceptor.METRIC)
+                .tags("method", "GET", "uri", URI)
+                .summary();
+        Assertions.assertEquals(total + 1, after.totalAmount());
+    }
+
+    @Test
+    public void shouldSearchItemsFreeInRange() throws Exception {
+        long freeItemId = itemService.add(ItemDto.builder().name("drill 2").description("desc").available(true).build(),
+                ownerId).getId();
+        book(day(1), day(3));
+
+        String json = mvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("start", day(2).toString())
+                        .param("end", day(4).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertEquals(List.of(freeItemId), List.of(mapper.readValue(json, ItemDto[].class)).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldValidateRange() throws Exception {
+        mvc.perform(get(URI, itemId)
+                        .param("from", day(2).toString())
+                        .param("to", day(1).toString()))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get(URI, Long.MAX_VALUE)
+                        .param("from", day(1).toString())
+                        .param("to", day(2).toString()))
+                .andExpect(status().isNotFound());
+    }
+
+    private long book(LocalDateTime start, LocalDateTime end) {
+        return bookingService.add(new BookingRequestDto(itemId, start, end), bookerId).getId();
+    }
+
+    private ItemAvailabilityDto availability(LocalDateTime from, LocalDateTime to) throws Exception {
+        String json = mvc.perform(get(URI, itemId)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(json, ItemAvailabilityDto.class);
+    }
+
+    private LocalDateTime day(int days) {
+        return day.plusDays(days);
+    }
+
+    private static TimeSlotDto slot(LocalDateTime start, LocalDateTime end) {
+        return new TimeSlotDto(start, end);
+    }
+}
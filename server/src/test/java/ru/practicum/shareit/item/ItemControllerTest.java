@@ -90,6 +90,18 @@ public class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(itemDto))));
     }
 
+    @Test
+    public void shouldReturnSearchedItemsFreeInRange() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 6, 18, 0);
+        when(itemService.searchAvailable("name", start, end, 0, 20))
+                .thenReturn((List.of(itemDto)));
+
+        mvc.perform(get(QUERY + "/search?text=Name&from=0&size=20&start=2030-01-04T10:00:00&end=2030-01-06T18:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(itemDto))));
+    }
+
     @Test
     public void shouldAddItem() throws Exception {
         ItemDto noIdItemDto = ItemDto.builder()
@@ -109,6 +121,25 @@ public class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(itemDto)));
     }
 
+    @Test
+    public void shouldAddItems() throws Exception {
+        ItemDto noIdItemDto = ItemDto.builder()
+                .name("name")
+                .description("desc")
+                .available(true)
+                .build();
+
+        when(itemService.addAll(List.of(noIdItemDto, noIdItemDto), userId))
+                .thenReturn(List.of(itemDto, itemDto));
+
+        mvc.perform(post(QUERY + "/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(List.of(noIdItemDto, noIdItemDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(itemDto, itemDto))));
+    }
+
     @Test
     public void shouldAddComment() throws Exception {
         CommentDto noIdCommentDto = CommentDto.builder()
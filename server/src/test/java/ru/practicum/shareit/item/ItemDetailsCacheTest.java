@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.item.cache.InMemorySharedItemDetailsCache;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+public class ItemDetailsCacheTest {
+
+    private final long itemId = 1;
+    private InMemorySharedItemDetailsCache shared;
+    private SimpleMeterRegistry meterRegistry;
+    private ItemDetailsCache cache;
+    private AtomicInteger loads;
+    private LongFunction<ItemDto> loader;
+
+    @BeforeEach
+    public void createCache() {
+        shared = new InMemorySharedItemDetailsCache();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = newCache();
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            return ItemDto.builder()
+                    .id(id)
+                    .name("item " + loads.get())
+                    .comments(new ArrayList<>(List.of(CommentDto.builder().id(1).text("text").build())))
+                    .build();
+        };
+    }
+
+    @AfterEach
+    public void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldLoadOnceAndReturnCopies() {
+        ItemDto first = cache.get(itemId, loader);
+        first.setName("changed");
+        first.getComments().clear();
+        ItemDto second = cache.get(itemId, loader);
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals("item 1", second.getName());
+        Assertions.assertEquals(1, second.getComments().size());
+    }
+
+    @Test
+    public void shouldReturnDeepCopies() {
+        cache.get(itemId, loader).getComments().get(0).setText("changed");
+
+        Assertions.assertEquals("text", cache.get(itemId, loader).getComments().get(0).getText());
+    }
+
+    @Test
+    public void shouldNotKeepLoadStartedBeforeEvict() {
+        ItemDto stale = cache.get(itemId, id -> {
+            ItemDto itemDto = loader.apply(id);
+            // удаление после коммита приходит, пока чтение еще не положило старое состояние в кэш;
+            // удаление той же вещи из другого потока ждало бы загрузку, а поколение общее для всех вещей
+            cache.evict(id + 1);
+            return itemDto;
+        });
+
+        Assertions.assertEquals("item 1", stale.getName());
+        Assertions.assertTrue(shared.get(itemId).isEmpty());
+        Assertions.assertEquals("item 2", cache.get(itemId, loader).getName());
+    }
+
+    @Test
+    public void shouldEvictSharedTierAgainAfterDelay() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict(itemId);
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        // другой экземпляр кладет в общий уровень состояние, прочитанное до коммита
+        shared.put(loader.apply(itemId));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (shared.get(itemId).isPresent() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertTrue(shared.get(itemId).isEmpty());
+    }
+
+    @Test
+    public void shouldReadSharedTierFromAnotherInstance() {
+        cache.get(itemId, loader);
+        ItemDto result = newCache().get(itemId, loader);
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals("item 1", result.getName());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("tier", "shared", "result", "hit").counter().count());
+    }
+
+    @Test
+    public void shouldReloadAfterEvict() {
+        ItemDetailsCache otherInstance = newCache();
+        cache.get(itemId, loader);
+        otherInstance.get(itemId, loader);
+        cache.evict(itemId);
+
+        Assertions.assertEquals("item 2", cache.get(itemId, loader).getName());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldEvictAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.get(itemId, loader);
+        cache.evict(itemId);
+        cache.get(itemId, loader);
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+        Assertions.assertEquals("item 3", cache.get(itemId, loader).getName());
+    }
+
+    @Test
+    public void shouldReloadAllAfterClear() {
+        cache.get(itemId, loader);
+        cache.get(2, loader);
+        cache.clear();
+        cache.get(itemId, loader);
+        cache.get(2, loader);
+
+        Assertions.assertEquals(4, loads.get());
+    }
+
+    private ItemDetailsCache newCache() {
+        return new ItemDetailsCache(shared, 100, Duration.ofMinutes(1), Duration.ofMillis(50), meterRegistry);
+    }
+}
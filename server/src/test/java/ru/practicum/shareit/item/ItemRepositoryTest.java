@@ -7,6 +7,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -27,6 +31,8 @@ public class ItemRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
 
     private Item item;
     private User owner;
@@ -75,6 +81,53 @@ public class ItemRepositoryTest {
         Assertions.assertEquals(List.of(item), items);
     }
 
+    @Test
+    public void shouldSearchByTextRankingNameMatchesFirst() {
+        Item byDescription = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("name in description")
+                .owner(owner)
+                .available(true)
+                .build());
+        Item unavailable = itemRepository.save(Item.builder()
+                .name("another name")
+                .description("desc")
+                .owner(owner)
+                .available(false)
+                .build());
+
+        List<Item> items = itemRepository.searchByText("name", PaginationAndSortParams.getPageable(0, 10));
+
+        Assertions.assertEquals(List.of(item, byDescription), items);
+        Assertions.assertFalse(items.contains(unavailable));
+    }
+
+    @Test
+    public void shouldSearchFreeByTextExcludingOverlappingBookings() {
+        Item booked = itemRepository.save(Item.builder()
+                .name("name booked")
+                .description("desc")
+                .owner(owner)
+                .available(true)
+                .build());
+        Item rejected = itemRepository.save(Item.builder()
+                .name("name rejected")
+                .description("desc")
+                .owner(owner)
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.of(2030, 1, 2, 0, 0);
+        LocalDateTime end = start.plusDays(2);
+        bookingRepository.save(booking(booked, start.plusDays(1), end.plusDays(1), BookingStatus.WAITING));
+        bookingRepository.save(booking(rejected, start.plusDays(1), end.plusDays(1), BookingStatus.REJECTED));
+        bookingRepository.save(booking(item, start.minusDays(1), start, BookingStatus.APPROVED));
+
+        List<Item> items = itemRepository.searchFreeByText("name", ItemAvailabilityIndex.BUSY_STATES, start, end,
+                PaginationAndSortParams.getPageable(0, 10));
+
+        Assertions.assertEquals(List.of(item, rejected), items);
+    }
+
     @Test
     public void shouldFindAllByOwnerId() {
         List<Item> items = itemRepository.findAllByOwnerId(owner.getId(), pageRequest);
@@ -82,9 +135,24 @@ public class ItemRepositoryTest {
         Assertions.assertEquals(List.of(item), items);
     }
 
+    @Test
+    public void shouldFindAllByOwnerIdAfterId() {
+        Item next = itemRepository.save(Item.builder()
+                .name("next")
+                .description("desc")
+                .owner(owner)
+                .available(true)
+                .build());
+
+        List<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThan(owner.getId(), item.getId(),
+                PaginationAndSortParams.getPageableAsc(0, 10, "id"));
+
+        Assertions.assertEquals(List.of(next), items);
+    }
+
     @Test
     public void shouldFindAllByRequestId() {
-        List<Item> items = itemRepository.findAllByItemRequestId(itemRequest.getId());
+        List<Item> items = itemRepository.findAllByItemRequestIds(List.of(itemRequest.getId()));
 
         Assertions.assertEquals(List.of(item), items);
     }
@@ -97,7 +165,7 @@ public class ItemRepositoryTest {
                 .available(true)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRepository.save(item2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRepository.saveAndFlush(item2));
     }
 
     @Test
@@ -108,7 +176,7 @@ public class ItemRepositoryTest {
                 .available(true)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRepository.save(item2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRepository.saveAndFlush(item2));
     }
 
     @Test
@@ -119,7 +187,7 @@ public class ItemRepositoryTest {
                 .available(true)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRepository.save(item2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRepository.saveAndFlush(item2));
     }
 
     @Test
@@ -130,6 +198,16 @@ public class ItemRepositoryTest {
                 .owner(owner)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRepository.save(item2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRepository.saveAndFlush(item2));
+    }
+
+    private Booking booking(Item bookedItem, LocalDateTime start, LocalDateTime end, BookingStatus state) {
+        return Booking.builder()
+                .item(bookedItem)
+                .booker(requester)
+                .start(start)
+                .end(end)
+                .state(state)
+                .build();
     }
 }
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PaginationAndSortParams;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по тексту на Postgres: семантика like '%text%' и триграммные GIN-индексы из
+ * V3__add_item_search_trgm_indexes.sql. Нужна доступная БД, изменения теста откатываются.
+ * Запуск: mvn test -pl server -Dtest=ItemSearchPostgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/shareit
+ * [-Dpostgres.username=shareit -Dpostgres.password=shareit]
+ */
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+@DataJpaTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${postgres.url}",
+        "spring.datasource.username=${postgres.username:shareit}",
+        "spring.datasource.password=${postgres.password:shareit}"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ItemSearchPostgresTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private Item drill;
+    private Item screwdriver;
+
+    @BeforeEach
+    public void createEntity() {
+        User owner = userRepository.save(User.builder().name("owner").email("search-owner@email.ru").build());
+        screwdriver = itemRepository.save(item(owner, "Отвертка поиск", "Аккумуляторная ДРЕЛЬ-отвертка", true));
+        drill = itemRepository.save(item(owner, "Дрель поиск", "Простая", true));
+        itemRepository.save(item(owner, "Пила поиск", "Дрель не прилагается", false));
+        itemRepository.flush();
+    }
+
+    @Test
+    public void shouldFindSubstringIgnoringCaseRankingNameMatchesFirst() {
+        List<Long> found = itemRepository.searchByText("дрель", PaginationAndSortParams.getPageable(0, 100)).stream()
+                .map(Item::getId)
+                .filter(id -> id == drill.getId() || id == screwdriver.getId())
+                .collect(Collectors.toList());
+
+        Assertions.assertEquals(List.of(drill.getId(), screwdriver.getId()), found);
+    }
+
+    @Test
+    public void shouldUseTrigramIndexes() {
+        jdbcTemplate.execute("set local enable_seqscan = off");
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain select id from items " +
+                "where available = true and (lower(name) like lower('%' || ? || '%') " +
+                "or lower(description) like lower('%' || ? || '%'))", String.class, "дрель", "дрель"));
+
+        Assertions.assertTrue(plan.contains("ix_items_name_trgm"), plan);
+        Assertions.assertTrue(plan.contains("ix_items_description_trgm"), plan);
+    }
+
+    private static Item item(User owner, String name, String description, boolean available) {
+        return Item.builder()
+                .name(name)
+                .description(description)
+                .owner(owner)
+                .available(available)
+                .build();
+    }
+}
@@ -7,28 +7,42 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.InMemorySharedItemDetailsCache;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PaginationAndSortParams;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,6 +60,15 @@ public class ItemServiceImplTest {
     UserRepository userRepository;
     @Mock
     ItemRequestRepository itemRequestRepository;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+    @Spy
+    ItemDetailsCache itemDetailsCache = new ItemDetailsCache(new InMemorySharedItemDetailsCache(),
+            100, Duration.ofMinutes(1), Duration.ofSeconds(1), new SimpleMeterRegistry());
+    @Mock
+    ItemAvailabilityIndex itemAvailabilityIndex;
+    @Mock
+    OutboxService outboxService;
     @InjectMocks
     ItemServiceImpl itemService;
     private User owner;
@@ -134,6 +157,73 @@ public class ItemServiceImplTest {
         Assertions.assertEquals(itemDto, itemService.getById(itemId, ownerId));
     }
 
+    @Test
+    public void shouldReturnNoFreeWindowsForUnavailableItem() {
+        item.setAvailable(false);
+        LocalDateTime from = timestamp.plusDays(1);
+        LocalDateTime to = timestamp.plusDays(3);
+        List<TimeSlotDto> busy = List.of(new TimeSlotDto(from, timestamp.plusDays(2)));
+        when(itemRepository.findById(itemId))
+                .thenReturn(Optional.ofNullable(item));
+        when(itemAvailabilityIndex.busy(Mockito.eq(itemId), Mockito.any(), Mockito.any()))
+                .thenReturn(busy);
+
+        ItemAvailabilityDto result = itemService.getAvailability(itemId, from, to);
+
+        Assertions.assertFalse(result.isAvailable());
+        Assertions.assertEquals(busy, result.getBusy());
+        Assertions.assertTrue(result.getFree().isEmpty());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenAvailabilityRangeIsEmpty() {
+        Assertions.assertThrows(ValidationException.class, () -> itemService.getAvailability(itemId, timestamp, timestamp));
+    }
+
+    @Test
+    public void shouldReturnItemByIdFromCache() {
+        when(itemRepository.findById(itemId))
+                .thenReturn(Optional.ofNullable(item));
+        when(commentRepository.findAllByItemIdOrderByCreated(itemId))
+                .thenReturn(List.of(comment));
+
+        itemService.getById(itemId, authorId);
+        ItemDto result = itemService.getById(itemId, authorId);
+
+        Assertions.assertEquals(List.of(commentDto), result.getComments());
+        verify(itemRepository, Mockito.times(1))
+                .findById(itemId);
+        verify(commentRepository, Mockito.times(1))
+                .findAllByItemIdOrderByCreated(itemId);
+    }
+
+    @Test
+    public void shouldReturnUpdatedItemByIdAfterUpdate() {
+        when(userRepository.findById(ownerId))
+                .thenReturn(Optional.ofNullable(owner));
+        when(itemRepository.findById(itemId))
+                .thenReturn(Optional.ofNullable(item));
+        Item updatedItem = Item.builder()
+                .id(itemId)
+                .name(newName)
+                .description(item.getDescription())
+                .owner(owner)
+                .available(true)
+                .build();
+        when(itemRepository.save(Mockito.any(Item.class)))
+                .thenReturn(updatedItem);
+
+        itemService.getById(itemId, authorId);
+        updateItemDto.setName(newName);
+        itemService.update(updateItemDto, ownerId);
+        when(itemRepository.findById(itemId))
+                .thenReturn(Optional.of(updatedItem));
+
+        Assertions.assertEquals(newName, itemService.getById(itemId, authorId).getName());
+        verify(itemDetailsCache, Mockito.times(1))
+                .evict(itemId);
+    }
+
     @Test
     public void shouldThrowExceptionGetItemByIdWhenUnknownItem() {
         final NotFoundException exception = Assertions.assertThrows(NotFoundException.class,
@@ -151,10 +241,58 @@ public class ItemServiceImplTest {
                 .thenReturn(Optional.ofNullable(owner));
         when(itemRepository.findAllByOwnerId(ownerId, pageRequest))
                 .thenReturn(List.of(item));
-        when(commentRepository.findAllByItemIdOrderByCreated(itemId))
+        when(commentRepository.findAllByItemIds(Set.of(itemId)))
                 .thenReturn(List.of(comment));
 
-        Assertions.assertEquals(List.of(itemDto), itemService.getAll(ownerId, 0, 1));
+        List<ItemDto> result = itemService.getAll(ownerId, 0, 1);
+
+        Assertions.assertEquals(List.of(itemDto), result);
+        Assertions.assertEquals(List.of(commentDto), result.get(0).getComments());
+    }
+
+    @Test
+    public void shouldReturnItemsWithLastAndNextBookings() {
+        Pageable pageRequest = PaginationAndSortParams.getPageableAsc(0, 1, "id");
+        Booking lastBooking = Booking.builder()
+                .id(1)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(item)
+                .booker(author)
+                .build();
+        Booking nextBooking = Booking.builder()
+                .id(2)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(author)
+                .build();
+
+        when(userRepository.findById(ownerId))
+                .thenReturn(Optional.ofNullable(owner));
+        when(itemRepository.findAllByOwnerId(ownerId, pageRequest))
+                .thenReturn(List.of(item));
+        when(bookingRepository.findLastAndNextByItemIds(Mockito.eq(Set.of(itemId)), Mockito.any(), Mockito.eq(BookingStatus.REJECTED)))
+                .thenReturn(List.of(lastBooking, nextBooking));
+
+        ItemDto result = itemService.getAll(ownerId, 0, 1).get(0);
+
+        Assertions.assertEquals(lastBooking.getId(), result.getLastBooking().getId());
+        Assertions.assertEquals(nextBooking.getId(), result.getNextBooking().getId());
+        Assertions.assertEquals(authorId, result.getNextBooking().getBookerId());
+        Assertions.assertEquals(List.of(), result.getComments());
+    }
+
+    @Test
+    public void shouldReturnItemsAfterCursor() {
+        Pageable pageRequest = PaginationAndSortParams.getPageableAsc(0, 1, "id");
+
+        when(userRepository.findById(ownerId))
+                .thenReturn(Optional.ofNullable(owner));
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThan(ownerId, 0, pageRequest))
+                .thenReturn(List.of(item));
+
+        Assertions.assertEquals(List.of(itemDto), itemService.getAll(ownerId, PageCursor.of(0), 1));
     }
 
     @Test
@@ -168,14 +306,26 @@ public class ItemServiceImplTest {
 
     @Test
     public void shouldReturnSearchedItems() {
-        Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
-
-        when(itemRepository.searchByText("text", pageRequest))
+        when(itemSearchEngine.search("text", 0, 1))
                 .thenReturn(List.of(item));
 
         Assertions.assertEquals(List.of(itemDto), itemService.searchByText("text", 0, 1));
     }
 
+    @Test
+    public void shouldReturnSearchedItemsFreeInRange() {
+        LocalDateTime start = timestamp.plusDays(1);
+        LocalDateTime end = timestamp.plusDays(2);
+        when(itemSearchEngine.searchFree("text", start.truncatedTo(ChronoUnit.MICROS), end.truncatedTo(ChronoUnit.MICROS),
+                0, 1))
+                .thenReturn(List.of(item), List.of());
+
+        Assertions.assertEquals(List.of(itemDto), itemService.searchAvailable("text", start, end, 0, 1));
+        Assertions.assertEquals(List.of(), itemService.searchAvailable("text", start, end, 0, 1));
+        Assertions.assertThrows(ValidationException.class, () -> itemService.searchAvailable("text", start, null, 0, 1));
+        Assertions.assertThrows(ValidationException.class, () -> itemService.searchAvailable("text", end, start, 0, 1));
+    }
+
     @Test
     public void shouldReturnEmptyListWhenTextBlank() {
         Assertions.assertEquals(List.of(), itemService.searchByText("", 0, 1));
@@ -248,6 +398,8 @@ public class ItemServiceImplTest {
                 .thenReturn(comment);
 
         Assertions.assertEquals(commentDto, itemService.addComment(itemId, authorId, noIdCommentDto));
+        verify(itemDetailsCache, Mockito.times(1))
+                .evict(itemId);
     }
 
     @Test
@@ -384,6 +536,10 @@ public class ItemServiceImplTest {
                 .deleteById(itemId);
         verify(commentRepository, Mockito.times(1))
                 .deleteAllByItemId(itemId);
+        verify(itemSearchEngine, Mockito.times(1))
+                .remove(itemId);
+        verify(itemDetailsCache, Mockito.times(1))
+                .evict(itemId);
     }
 
     @Test
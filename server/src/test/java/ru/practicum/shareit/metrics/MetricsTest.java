@@ -0,0 +1,100 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.MeterNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Таймеры сервисов, метрики репозиториев, счетчик SQL-запросов за HTTP-запрос и метрики пула соединений.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ObjectMapper mapper;
+
+    @AfterEach
+    public void clear() {
+        userService.deleteAll();
+    }
+
+    @Test
+    public void shouldTimeServiceMethods() throws Exception {
+        long added = serviceCount("add", "none");
+        long notFound = serviceCount("getById", "NotFoundException");
+
+        addUser();
+        mvc.perform(get("/users/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        Assertions.assertEquals(added + 1, serviceCount("add", "none"));
+        Assertions.assertEquals(notFound + 1, serviceCount("getById", "NotFoundException"));
+        Assertions.assertTrue(registry.get("spring.data.repository.invocations")
+                .tags("repository", "UserRepository", "method", "save")
+                .timer().count() > 0);
+    }
+
+    @Test
+    public void shouldCountSqlStatementsPerRequest() throws Exception {
+        long userId = addUser();
+        DistributionSummary before = registry.find(SqlStatementsInterceptor.METRIC)
+                .tags("method", "GET", "uri", "/users/{userId}")
+                .summary();
+        long count = before == null ? 0 : before.count();
+        double total = before == null ? 0 : before.totalAmount();
+
+        mvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk());
+
+        DistributionSummary after = registry.get(SqlStatementsInterceptor.METRIC)
+                .tags("method", "GET", "uri", "/users/{userId}")
+                .summary();
+        Assertions.assertEquals(count + 1, after.count());
+        Assertions.assertEquals(total + 1, after.totalAmount());
+    }
+
+    @Test
+    public void shouldExposeConnectionPoolGauges() {
+        Assertions.assertDoesNotThrow(() -> registry.get("hikaricp.connections.active").gauge());
+        Assertions.assertThrows(MeterNotFoundException.class, () -> registry.get("hikaricp.unknown").gauge());
+    }
+
+    private long addUser() throws Exception {
+        String response = mvc.perform(post("/users")
+                        .content("{\"name\":\"user\",\"email\":\"user@email.ru\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(response, UserDto.class).getId();
+    }
+
+    private long serviceCount(String method, String exception) {
+        Timer timer = registry.find(ServiceMetricsPostProcessor.METRIC)
+                .tags("service", "UserServiceImpl", "method", method, "exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
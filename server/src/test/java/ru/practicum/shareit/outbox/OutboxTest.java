@@ -0,0 +1,216 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+import ru.practicum.shareit.outbox.service.OutboxRelay;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.outbox.sink.InMemoryOutboxSink;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * События пишутся в outbox в транзакции изменения и публикуются relay по порядку id после окна видимости.
+ * У контекста своя БД: relay других тестовых контекстов не забирает его события, а их события не попадают в его sink.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.outbox.visibility-window=" + OutboxTest.VISIBILITY_WINDOW_MS + "ms"})
+@AutoConfigureMockMvc
+public class OutboxTest {
+
+    static final long VISIBILITY_WINDOW_MS = 300;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private InMemoryOutboxSink sink;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private long ownerId;
+    private long bookerId;
+    private long lastEventId;
+
+    @BeforeEach
+    public void createEntity() {
+        ownerId = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build()).getId();
+        bookerId = userService.add(UserDto.builder().name("booker").email("booker@email.ru").build()).getId();
+        relayVisible();
+        List<OutboxEventDto> events = sink.events();
+        lastEventId = events.isEmpty() ? 0 : events.get(events.size() - 1).getId();
+    }
+
+    @AfterEach
+    public void clear() {
+        userService.deleteAll();
+    }
+
+    @Test
+    public void shouldPublishChangesInOrder() throws Exception {
+        long requestId = itemRequestService.addRequest(bookerId, ItemRequestShortDto.builder().description("drill").build()).getId();
+        long itemId = itemService.add(ItemDto.builder().name("drill").description("desc").available(true)
+                .requestId(requestId).build(), ownerId).getId();
+        itemService.update(ItemDto.builder().id(itemId).name("new drill").build(), ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        long bookingId = bookingService.add(new BookingRequestDto(itemId, start, start.plusDays(1)), bookerId).getId();
+        bookingService.setBookingApprove(bookingId, ownerId, false);
+
+        relayVisible();
+
+        List<OutboxEventDto> events = newEvents();
+        Assertions.assertEquals(List.of(OutboxEventType.REQUEST_CREATED, OutboxEventType.ITEM_CREATED,
+                        OutboxEventType.ITEM_UPDATED, OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_REJECTED),
+                events.stream().map(OutboxEventDto::getType).collect(Collectors.toList()));
+        Assertions.assertEquals(List.of(requestId, itemId, itemId, bookingId, bookingId),
+                events.stream().map(OutboxEventDto::getAggregateId).collect(Collectors.toList()));
+        JsonNode updated = mapper.readTree(events.get(2).getPayload());
+        Assertions.assertEquals("new drill", updated.get("name").asText());
+        JsonNode rejected = mapper.readTree(events.get(4).getPayload());
+        Assertions.assertEquals("REJECTED", rejected.get("status").asText());
+        Assertions.assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    public void shouldNotPublishRolledBackChanges() {
+        long itemId = itemService.add(ItemDto.builder().name("drill").description("desc").available(true).build(),
+                ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        Assertions.assertThrows(NotFoundException.class,
+                () -> bookingService.add(new BookingRequestDto(itemId, start, start.plusDays(1)), ownerId));
+        relayVisible();
+
+        Assertions.assertEquals(List.of(OutboxEventType.ITEM_CREATED),
+                newEvents().stream().map(OutboxEventDto::getType).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldReplayEventsAfterLastEventId() throws Exception {
+        long itemId = itemService.add(ItemDto.builder().name("drill").description("desc").available(true).build(),
+                ownerId).getId();
+        relayVisible();
+
+        MockHttpServletResponse stream = mvc.perform(get("/events")
+                        .header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        OutboxEventDto event = newEvents().get(0);
+        // данные события пишутся после строк id и event
+        String content = await(stream, "\"aggregateId\":" + itemId);
+        Assertions.assertTrue(content.contains("id:" + event.getId() + "\nevent:ITEM_CREATED\n"));
+    }
+
+    @Test
+    public void shouldPublishLowerIdCommittedAfterHigherIdInOrder() throws Exception {
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                outboxService.record(OutboxEventType.ITEM_CREATED, 1, Map.of());
+                recorded.countDown();
+                try {
+                    commit.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            recorded.await();
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxService.record(OutboxEventType.ITEM_UPDATED, 1, Map.of()));
+
+            outboxRelay.relay();
+
+            Assertions.assertEquals(List.of(), newEvents());
+
+            commit.countDown();
+            slow.get();
+            relayVisible();
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+
+        List<OutboxEventDto> events = newEvents();
+        Assertions.assertEquals(List.of(OutboxEventType.ITEM_CREATED, OutboxEventType.ITEM_UPDATED),
+                events.stream().map(OutboxEventDto::getType).collect(Collectors.toList()));
+        Assertions.assertTrue(events.get(0).getId() < events.get(1).getId());
+    }
+
+    /**
+     * Relay после окна видимости: события, записанные до вызова, старше окна.
+     */
+    private void relayVisible() {
+        try {
+            Thread.sleep(VISIBILITY_WINDOW_MS + 50);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        outboxRelay.relay();
+    }
+
+    private static String await(MockHttpServletResponse stream, String event) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getContentAsString();
+        while (!content.contains(event) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getContentAsString();
+        }
+        Assertions.assertTrue(content.contains(event), content);
+        return content;
+    }
+
+    private List<OutboxEventDto> newEvents() {
+        return sink.events().stream()
+                .filter(event -> event.getId() > lastEventId)
+                .collect(Collectors.toList());
+    }
+}
@@ -54,7 +54,7 @@ public class ItemRequestControllerTest {
 
     @Test
     public void shouldReturnRequestsByUser() throws Exception {
-        when(itemRequestService.getAllByUser(userId))
+        when(itemRequestService.getAllByUser(userId, 0, null))
                 .thenReturn((List.of(itemRequestDto)));
 
         mvc.perform(get(QUERY)
@@ -63,6 +63,17 @@ public class ItemRequestControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(itemRequestDto))));
     }
 
+    @Test
+    public void shouldReturnRequestsByUserPage() throws Exception {
+        when(itemRequestService.getAllByUser(userId, 0, 20))
+                .thenReturn((List.of(itemRequestDto)));
+
+        mvc.perform(get(QUERY + "?from=0&size=20")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(itemRequestDto))));
+    }
+
     @Test
     public void shouldReturnRequests() throws Exception {
         when(itemRequestService.getAll(userId, 0, 20))
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.request;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Число SQL-запросов при выдаче списка заявок не должно зависеть от размера страницы.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ItemRequestServiceImpl.class)
+public class ItemRequestQueryCountTest {
+
+    private static final int REQUESTS = 10;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockBean
+    private OutboxService outboxService;
+    private User owner;
+    private User requester;
+
+    @BeforeEach
+    public void createEntity() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@email.ru").build());
+        requester = userRepository.save(User.builder().name("requester").email("requester@email.ru").build());
+        LocalDateTime timestamp = LocalDateTime.now();
+        for (int i = 0; i < REQUESTS; i++) {
+            ItemRequest itemRequest = itemRequestRepository.save(ItemRequest.builder()
+                    .description("desc " + i)
+                    .requester(requester)
+                    .creation(timestamp.minusMinutes(i))
+                    .build());
+            for (int j = 0; j < 2; j++) {
+                itemRepository.save(Item.builder()
+                        .name("item " + i + " " + j)
+                        .description("desc")
+                        .owner(owner)
+                        .available(true)
+                        .itemRequest(itemRequest)
+                        .build());
+            }
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    public void getAllByUserShouldUseFixedNumberOfQueries() {
+        long singlePage = countQueries(() -> itemRequestService.getAllByUser(requester.getId(), 0, 1));
+        long fullPage = countQueries(() -> itemRequestService.getAllByUser(requester.getId(), 0, REQUESTS));
+
+        Assertions.assertEquals(3, singlePage);
+        Assertions.assertEquals(singlePage, fullPage);
+    }
+
+    @Test
+    public void getAllShouldUseFixedNumberOfQueries() {
+        long singlePage = countQueries(() -> itemRequestService.getAll(owner.getId(), 0, 1));
+        long fullPage = countQueries(() -> itemRequestService.getAll(owner.getId(), 0, REQUESTS));
+
+        Assertions.assertEquals(2, singlePage);
+        Assertions.assertEquals(singlePage, fullPage);
+    }
+
+    @Test
+    public void shouldGroupItemsByRequest() {
+        entityManager.clear();
+        List<ItemRequestDto> result = itemRequestService.getAllByUser(requester.getId(), 0, REQUESTS);
+
+        Assertions.assertEquals(REQUESTS, result.size());
+        for (ItemRequestDto itemRequestDto : result) {
+            Assertions.assertEquals(2, itemRequestDto.getItems().size());
+            Assertions.assertTrue(itemRequestDto.getItems().stream()
+                    .allMatch(item -> item.getRequestId() == itemRequestDto.getId()));
+        }
+    }
+
+    private long countQueries(Supplier<List<ItemRequestDto>> call) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemRequestDto> result = call.get();
+        Assertions.assertFalse(result.isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+}
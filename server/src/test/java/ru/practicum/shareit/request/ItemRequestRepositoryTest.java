@@ -17,6 +17,7 @@ import ru.practicum.shareit.util.PaginationAndSortParams;
 
 import javax.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @DataJpaTest
@@ -33,7 +34,7 @@ public class ItemRequestRepositoryTest {
     private User owner;
     private User requester;
     private ItemRequest itemRequest;
-    private final LocalDateTime timestamp = LocalDateTime.now();
+    private final LocalDateTime timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
     private final Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
 
 
@@ -72,7 +73,8 @@ public class ItemRequestRepositoryTest {
 
     @Test
     public void shouldFindAllByRequesterId() {
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterIdOrderByCreationDesc(requester.getId());
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterId(requester.getId(),
+                PaginationAndSortParams.getPageableDesc(0, 10, "creation", "id"));
 
         Assertions.assertEquals(List.of(itemRequest), itemRequests);
     }
@@ -91,6 +93,20 @@ public class ItemRequestRepositoryTest {
         Assertions.assertEquals(0, itemRequests.size());
     }
 
+    @Test
+    public void shouldFindAllByRequesterIdNotAfterCursor() {
+        ItemRequest earlier = itemRequestRepository.save(ItemRequest.builder()
+                .description("earlier")
+                .requester(requester)
+                .creation(timestamp.minusDays(1))
+                .build());
+
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterIdNotAfter(owner.getId(),
+                itemRequest.getCreation(), itemRequest.getId(), PaginationAndSortParams.getPageable(0, 10));
+
+        Assertions.assertEquals(List.of(earlier), itemRequests);
+    }
+
     @Test
     public void shouldNotAddItemRequestNoDescription() {
         ItemRequest itemRequest2 = ItemRequest.builder()
@@ -98,7 +114,7 @@ public class ItemRequestRepositoryTest {
                 .creation(timestamp)
                 .build();
 
-        Assertions.assertThrows(ConstraintViolationException.class, () -> itemRequestRepository.save(itemRequest2));
+        Assertions.assertThrows(ConstraintViolationException.class, () -> itemRequestRepository.saveAndFlush(itemRequest2));
     }
 
     @Test
@@ -108,7 +124,7 @@ public class ItemRequestRepositoryTest {
                 .creation(timestamp)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRequestRepository.save(itemRequest2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRequestRepository.saveAndFlush(itemRequest2));
     }
 
     @Test
@@ -118,6 +134,6 @@ public class ItemRequestRepositoryTest {
                 .requester(requester)
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRequestRepository.save(itemRequest2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> itemRequestRepository.saveAndFlush(itemRequest2));
     }
 }
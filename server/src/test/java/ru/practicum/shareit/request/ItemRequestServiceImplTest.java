@@ -9,8 +9,10 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -18,6 +20,7 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PaginationAndSortParams;
 
 import java.time.LocalDateTime;
@@ -36,6 +39,8 @@ public class ItemRequestServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private OutboxService outboxService;
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
     private ItemRequest itemRequest;
@@ -78,16 +83,27 @@ public class ItemRequestServiceImplTest {
     public void shouldReturnAllByUser() {
         when(userRepository.findById(requesterId))
                 .thenReturn(Optional.ofNullable(requester));
-        when(itemRequestRepository.findAllByRequesterIdOrderByCreationDesc(requesterId))
+        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(0, 1, "creation", "id");
+        when(itemRequestRepository.findAllByRequesterId(requesterId, pageRequest))
+                .thenReturn(List.of(itemRequest));
+
+        Assertions.assertEquals(List.of(itemRequestDto), itemRequestService.getAllByUser(requesterId, 0, 1));
+    }
+
+    @Test
+    public void shouldReturnAllByUserUnpagedWithoutSize() {
+        when(userRepository.findById(requesterId))
+                .thenReturn(Optional.ofNullable(requester));
+        when(itemRequestRepository.findAllByRequesterId(requesterId, Sort.by("creation", "id").descending()))
                 .thenReturn(List.of(itemRequest));
 
-        Assertions.assertEquals(List.of(itemRequestDto), itemRequestService.getAllByUser(requesterId));
+        Assertions.assertEquals(List.of(itemRequestDto), itemRequestService.getAllByUser(requesterId, 0, null));
     }
 
     @Test
     public void shouldThrowExceptionReturnAllByUserWhenUnknownUser() {
         final NotFoundException exception = Assertions.assertThrows(NotFoundException.class,
-                () -> itemRequestService.getAllByUser(99));
+                () -> itemRequestService.getAllByUser(99, 0, 1));
 
         Assertions.assertEquals("user", exception.getParameter());
         Assertions.assertEquals("не найден", exception.getMessage());
@@ -95,7 +111,7 @@ public class ItemRequestServiceImplTest {
 
     @Test
     public void shouldReturnAll() {
-        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(0, 1, "creation");
+        Pageable pageRequest = PaginationAndSortParams.getPageableDesc(0, 1, "creation", "id");
 
         when(itemRequestRepository.findAllByRequesterIdNot(requesterId, pageRequest))
                 .thenReturn(List.of(itemRequest));
@@ -103,6 +119,17 @@ public class ItemRequestServiceImplTest {
         Assertions.assertEquals(List.of(itemRequestDto), itemRequestService.getAll(requesterId, 0, 1));
     }
 
+    @Test
+    public void shouldReturnAllAfterCursor() {
+        PageCursor cursor = PageCursor.of(itemRequest.getCreation().plusDays(1), 99);
+        Pageable pageRequest = PaginationAndSortParams.getPageable(0, 1);
+
+        when(itemRequestRepository.findAllByRequesterIdNotAfter(requesterId, cursor.getTimestamp(), cursor.getId(), pageRequest))
+                .thenReturn(List.of(itemRequest));
+
+        Assertions.assertEquals(List.of(itemRequestDto), itemRequestService.getAll(requesterId, cursor, 1));
+    }
+
     @Test
     public void shouldReturnById() {
         when(userRepository.findById(requesterId))
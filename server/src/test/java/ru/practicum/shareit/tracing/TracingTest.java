@@ -0,0 +1,94 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Трасса из заголовка traceparent продолжается в спанах контроллера, сервиса и SQL-запросов.
+ */
+@SpringBootTest(properties = "shareit.tracing.exporter=memory")
+@AutoConfigureMockMvc
+public class TracingTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+    @Autowired
+    private InMemorySpanExporter exporter;
+    private long userId;
+
+    @BeforeEach
+    public void createEntity() {
+        userId = userService.add(UserDto.builder().name("user").email("user@email.ru").build()).getId();
+        flush();
+        exporter.clear();
+    }
+
+    @AfterEach
+    public void clear() {
+        userService.deleteAll();
+    }
+
+    @Test
+    public void shouldContinueTraceFromServerToDatabase() throws Exception {
+        mvc.perform(get("/users/{id}", userId)
+                        .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_ID + "-01"))
+                .andExpect(status().isOk());
+        flush();
+
+        List<SpanData> spans = exporter.getSpans();
+        Assertions.assertTrue(spans.stream().allMatch(span -> span.getTraceId().equals(TRACE_ID)));
+        SpanData server = single(spans, "GET /users/{userId}");
+        Assertions.assertEquals(SpanKind.SERVER, server.getKind());
+        Assertions.assertEquals(PARENT_ID, server.getParentSpanId());
+        SpanData service = single(spans, "UserServiceImpl.getById");
+        Assertions.assertEquals(server.getSpanId(), service.getParentSpanId());
+        SpanData select = single(spans, "SELECT");
+        Assertions.assertEquals(SpanKind.CLIENT, select.getKind());
+        Assertions.assertEquals(service.getSpanId(), select.getParentSpanId());
+    }
+
+    @Test
+    public void shouldNotTraceDatabaseOutsideRequests() {
+        userService.getById(userId);
+        flush();
+
+        Assertions.assertEquals(List.of(), exporter.getSpans());
+    }
+
+    private void flush() {
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+    }
+
+    private static SpanData single(List<SpanData> spans, String name) {
+        List<SpanData> found = spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(1, found.size(), () -> name + " в " + spans);
+        return found.get(0);
+    }
+}
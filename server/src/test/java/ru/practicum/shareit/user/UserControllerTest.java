@@ -8,18 +8,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -56,11 +62,19 @@ public class UserControllerTest {
 
     @Test
     public void shouldReturnUsers() throws Exception {
-        when(userService.getAll())
-                .thenReturn((List.of(userDto)));
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(userDto);
+            return null;
+        }).when(userService).getAll(any());
 
-        mvc.perform(get(QUERY))
+        MvcResult result = mvc.perform(get(QUERY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(mapper.writeValueAsString(List.of(userDto))));
     }
 
@@ -81,6 +95,23 @@ public class UserControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(userDto)));
     }
 
+    @Test
+    public void shouldAddUsers() throws Exception {
+        UserDto noIdUserDto = UserDto.builder()
+                .name("test")
+                .email("test@email.ru")
+                .build();
+
+        when(userService.addAll(List.of(noIdUserDto)))
+                .thenReturn(List.of(userDto));
+
+        mvc.perform(post(QUERY + "/batch")
+                        .content(mapper.writeValueAsString(List.of(noIdUserDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(userDto))));
+    }
+
     @Test
     public void shouldUpdateUser() throws Exception {
         UserDto updateDto = UserDto.builder()
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.user;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Удаление пользователя выполняется фиксированным числом пакетных запросов без загрузки сущностей.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(UserServiceImpl.class)
+public class UserDeletionTest {
+
+    private static final int ITEMS = 10;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockBean
+    private ItemSearchEngine itemSearchEngine;
+    @MockBean
+    private ItemDetailsCache itemDetailsCache;
+    @MockBean
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    private User owner;
+    private User other;
+    private final List<Long> ownerItemIds = new ArrayList<>();
+    private Item otherItem;
+    private Item answerItem;
+    private Booking otherBooking;
+
+    @BeforeEach
+    public void createEntity() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@email.ru").build());
+        other = userRepository.save(User.builder().name("other").email("other@email.ru").build());
+        LocalDateTime timestamp = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(item("item " + i, owner, null));
+            ownerItemIds.add(item.getId());
+            bookingRepository.save(booking(item, other, timestamp));
+            commentRepository.save(Comment.builder().text("text").item(item).author(other).created(timestamp).build());
+        }
+        ItemRequest ownerRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("desc")
+                .requester(owner)
+                .creation(timestamp)
+                .build());
+        answerItem = itemRepository.save(item("answer", other, ownerRequest));
+        otherItem = itemRepository.save(item("other", other, null));
+        otherBooking = bookingRepository.save(booking(otherItem, other, timestamp));
+        bookingRepository.save(booking(otherItem, owner, timestamp));
+        commentRepository.save(Comment.builder().text("text").item(otherItem).author(owner).created(timestamp).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void shouldDeleteUserWithDependentRowsWithoutLoadingEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        userService.deleteById(owner.getId());
+
+        Assertions.assertEquals(12, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+
+        entityManager.clear();
+        Assertions.assertEquals(List.of(other.getId()), userRepository.findAll().stream().map(User::getId).collect(Collectors.toList()));
+        Assertions.assertEquals(List.of(otherItem.getId()), itemRepository.findAll().stream().map(Item::getId).collect(Collectors.toList()));
+        Assertions.assertEquals(List.of(otherBooking.getId()),
+                bookingRepository.findAll().stream().map(Booking::getId).collect(Collectors.toList()));
+        Assertions.assertTrue(commentRepository.findAll().isEmpty());
+        Assertions.assertTrue(itemRequestRepository.findAll().isEmpty());
+
+        Set<Long> removedItemIds = new HashSet<>(ownerItemIds);
+        removedItemIds.add(answerItem.getId());
+        Set<Long> changedItemIds = new HashSet<>(removedItemIds);
+        changedItemIds.add(otherItem.getId());
+        Mockito.verify(itemSearchEngine).removeAll(Mockito.argThat(ids -> removedItemIds.equals(new HashSet<>(ids))));
+        Mockito.verify(itemDetailsCache).evictAll(changedItemIds);
+        Mockito.verify(itemAvailabilityIndex).removeItems(Mockito.argThat(ids -> removedItemIds.equals(new HashSet<>(ids))));
+        Mockito.verify(itemAvailabilityIndex).removeAll(Mockito.argThat(intervals -> intervals.size() == 1
+                && intervals.iterator().next().getItemId() == otherItem.getId()));
+    }
+
+    private static Item item(String name, User owner, ItemRequest itemRequest) {
+        return Item.builder()
+                .name(name)
+                .description("desc")
+                .owner(owner)
+                .available(true)
+                .itemRequest(itemRequest)
+                .build();
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime timestamp) {
+        return Booking.builder()
+                .start(timestamp.plusDays(1))
+                .end(timestamp.plusDays(2))
+                .item(item)
+                .booker(booker)
+                .state(BookingStatus.WAITING)
+                .build();
+    }
+}
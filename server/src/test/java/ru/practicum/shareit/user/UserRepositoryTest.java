@@ -5,8 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.Mapper;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @DataJpaTest
 public class UserRepositoryTest {
@@ -14,13 +20,29 @@ public class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Test
+    public void shouldStreamAllUsersOrderedById() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@email.ru")
+                .build());
+        User user2 = userRepository.save(User.builder()
+                .name("user2")
+                .email("user2@email.ru")
+                .build());
+
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            Assertions.assertEquals(List.of(Mapper.toDto(user), Mapper.toDto(user2)), users.collect(Collectors.toList()));
+        }
+    }
+
     @Test
     public void shouldNotAddUserNoName() {
         User user = User.builder()
                 .email("user@email.ru")
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userRepository.save(user));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(user));
     }
 
     @Test
@@ -29,7 +51,7 @@ public class UserRepositoryTest {
                 .name("user")
                 .build();
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userRepository.save(user));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(user));
     }
 
     @Test
@@ -46,6 +68,6 @@ public class UserRepositoryTest {
 
         userRepository.save(user);
 
-        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userRepository.save(user2));
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(user2));
     }
 }
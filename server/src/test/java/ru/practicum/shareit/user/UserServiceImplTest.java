@@ -8,16 +8,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,6 +38,18 @@ public class UserServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
     @InjectMocks
     private UserServiceImpl userService;
     private User user;
@@ -78,18 +99,22 @@ public class UserServiceImplTest {
 
     @Test
     public void shouldReturnUsers() {
-        when(userRepository.findAll())
-                .thenReturn(List.of(user));
+        when(userRepository.streamAll())
+                .thenReturn(Stream.of(userDto));
+        List<UserDto> result = new ArrayList<>();
+        userService.getAll(result::add);
 
-        Assertions.assertEquals(List.of(userDto), userService.getAll());
+        Assertions.assertEquals(List.of(userDto), result);
     }
 
     @Test
     public void shouldReturnEmptyList() {
-        when(userRepository.findAll())
-                .thenReturn(List.of());
+        when(userRepository.streamAll())
+                .thenReturn(Stream.empty());
+        List<UserDto> result = new ArrayList<>();
+        userService.getAll(result::add);
 
-        Assertions.assertEquals(0, userService.getAll().size());
+        Assertions.assertEquals(0, result.size());
     }
 
     @Test
@@ -153,6 +178,23 @@ public class UserServiceImplTest {
         Assertions.assertEquals(userDto, userService.update(userId, updateUserDto));
     }
 
+    @Test
+    public void shouldEvictCommentedItemsWhenUserNameChanged() {
+        updateUserDto.setName(newName);
+
+        when(userRepository.findById(userId))
+                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.save(Mockito.any(User.class)))
+                .thenReturn(user);
+        when(commentRepository.findItemIdsByAuthorId(userId))
+                .thenReturn(List.of(1L, 2L));
+
+        userService.update(userId, updateUserDto);
+
+        verify(itemDetailsCache, Mockito.times(1))
+                .evictAll(List.of(1L, 2L));
+    }
+
     @Test
     public void shouldUpdateUserNameAndEmail() {
         updateUserDto.setName(newName);
@@ -182,17 +224,37 @@ public class UserServiceImplTest {
 
     @Test
     public void shouldDeleteUserById() {
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(userId))
+                .thenReturn(true);
+        when(itemRepository.findIdsByOwnerId(userId))
+                .thenReturn(List.of(1L));
+        when(itemRepository.findIdsByRequesterId(userId))
+                .thenReturn(List.of(2L));
+        when(commentRepository.findItemIdsByAuthorId(userId))
+                .thenReturn(List.of(2L, 3L));
 
         userService.deleteById(userId);
 
+        verify(commentRepository, Mockito.times(1))
+                .deleteAllByAuthorId(userId);
+        verify(commentRepository, Mockito.times(1))
+                .deleteAllByItemOwnerId(userId);
+        verify(bookingRepository, Mockito.times(1))
+                .deleteAllByBookerId(userId);
+        verify(bookingRepository, Mockito.times(1))
+                .deleteAllByItemOwnerId(userId);
         verify(itemRepository, Mockito.times(1))
-                .findAll();
-        verify(itemRepository, Mockito.never())
-                .deleteById(Mockito.any());
+                .deleteAllByOwnerId(userId);
+        verify(itemRequestRepository, Mockito.times(1))
+                .deleteAllByRequesterId(userId);
         verify(userRepository, Mockito.times(1))
-                .deleteById(userId);
+                .deleteUserById(userId);
+        verify(itemRepository, Mockito.never())
+                .findAll();
+        verify(itemSearchEngine, Mockito.times(1))
+                .removeAll(List.of(1L, 2L));
+        verify(itemDetailsCache, Mockito.times(1))
+                .evictAll(Set.of(1L, 2L, 3L));
     }
 
     @Test
@@ -209,8 +271,8 @@ public class UserServiceImplTest {
         userService.deleteAll();
 
         verify(userRepository, Mockito.times(1))
-                .deleteAll();
+                .deleteAllInBatch();
         verify(itemRepository, Mockito.times(1))
-                .deleteAll();
+                .deleteAllInBatch();
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Ошибка посреди потокового ответа GET /users обрывает соединение без завершающего блока chunked:
+ * клиент получает ошибку чтения, а не ответ 200 с усеченным JSON-массивом.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class UserStreamFailureTest {
+
+    @LocalServerPort
+    private int port;
+    @MockBean
+    private UserService userService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 1000})
+    @SuppressWarnings("unchecked")
+    public void shouldAbortResponseOnFailureMidStream(int sent) {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            for (int i = 0; i < sent; i++) {
+                consumer.accept(UserDto.builder().id(i).name("user" + i).email("user" + i + "@email.ru").build());
+            }
+            throw new IllegalStateException("соединение с БД потеряно");
+        }).when(userService).getAll(any(Consumer.class));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users")).build();
+
+        Assertions.assertThrows(IOException.class,
+                () -> HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+}
@@ -0,0 +1,236 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сгенерированный MapStruct маппер сверяется с прежней реализацией Mapper на билдерах Lombok.
+ */
+public class MapperTest {
+
+    private final LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private final User owner = User.builder().id(1).name("owner").email("owner@email.ru").build();
+    private final User booker = User.builder().id(2).name("booker").email("booker@email.ru").build();
+    private final ItemRequest itemRequest = ItemRequest.builder()
+            .id(3)
+            .description("request")
+            .requester(booker)
+            .creation(timestamp)
+            .build();
+    private final Item item = Item.builder()
+            .id(4)
+            .name("item")
+            .description("desc")
+            .owner(owner)
+            .available(true)
+            .itemRequest(itemRequest)
+            .build();
+    private final Item itemWithoutRequest = Item.builder()
+            .id(5)
+            .name("item 2")
+            .description("desc 2")
+            .owner(owner)
+            .available(false)
+            .build();
+    private final Booking booking = Booking.builder()
+            .id(6)
+            .start(timestamp)
+            .end(timestamp.plusDays(1))
+            .item(item)
+            .booker(booker)
+            .state(BookingStatus.APPROVED)
+            .build();
+    private final Comment comment = Comment.builder()
+            .id(7)
+            .text("text")
+            .item(item)
+            .author(booker)
+            .created(timestamp)
+            .build();
+
+    @Test
+    public void shouldMapUserAsBuilderMapper() {
+        assertSame(BuilderMapper.toDto(owner), Mapper.toDto(owner));
+        UserDto userDto = BuilderMapper.toDto(owner);
+        assertSame(BuilderMapper.fromDto(userDto), Mapper.fromDto(userDto));
+    }
+
+    @Test
+    public void shouldMapItemAsBuilderMapper() {
+        assertSame(BuilderMapper.toDto(item), Mapper.toDto(item));
+        assertSame(BuilderMapper.toDto(itemWithoutRequest), Mapper.toDto(itemWithoutRequest));
+        assertSame(BuilderMapper.toItemForRequestDto(item), Mapper.toItemForRequestDto(item));
+        ItemDto itemDto = BuilderMapper.toDto(item);
+        assertSame(BuilderMapper.fromDto(itemDto, owner), Mapper.fromDto(itemDto, owner));
+    }
+
+    @Test
+    public void shouldMapCommentAsBuilderMapper() {
+        assertSame(BuilderMapper.toDto(comment), Mapper.toDto(comment));
+        CommentDto commentDto = BuilderMapper.toDto(comment);
+        assertSame(BuilderMapper.fromDto(commentDto, item.getId()), Mapper.fromDto(commentDto, item.getId()));
+    }
+
+    @Test
+    public void shouldMapBookingAsBuilderMapper() {
+        assertSame(BuilderMapper.toDto(booking), Mapper.toDto(booking));
+        assertSame(BuilderMapper.toShortDto(booking), Mapper.toShortDto(booking));
+        BookingRequestDto requestDto = BookingRequestDto.builder()
+                .itemId(item.getId())
+                .start(timestamp)
+                .end(timestamp.plusHours(1))
+                .build();
+        assertSame(BuilderMapper.fromRequestDto(requestDto, booker, item), Mapper.fromRequestDto(requestDto, booker, item));
+    }
+
+    @Test
+    public void shouldMapItemRequestAsBuilderMapper() {
+        assertSame(BuilderMapper.toDto(itemRequest), Mapper.toDto(itemRequest));
+        ItemRequestShortDto shortDto = ItemRequestShortDto.builder()
+                .description("request")
+                .creation(timestamp.minusDays(1))
+                .build();
+        assertSame(BuilderMapper.fromShortDto(booker, shortDto, timestamp), Mapper.fromShortDto(booker, shortDto, timestamp));
+    }
+
+    private static void assertSame(Object expected, Object actual) {
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    /**
+     * Реализация Mapper до перехода на MapStruct.
+     */
+    private static class BuilderMapper {
+
+        //User
+        static UserDto toDto(User user) {
+            return UserDto.builder()
+                    .id(user.getId())
+                    .name(user.getName())
+                    .email(user.getEmail())
+                    .build();
+        }
+
+        static User fromDto(UserDto userDto) {
+            return User.builder()
+                    .id(userDto.getId())
+                    .name(userDto.getName())
+                    .email(userDto.getEmail())
+                    .build();
+        }
+
+        //Item
+        static ItemDto toDto(Item item) {
+            ItemDto itemDto = ItemDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .ownerId(item.getOwner().getId())
+                    .build();
+            if (item.getItemRequest() != null) itemDto.setRequestId(item.getItemRequest().getId());
+            return itemDto;
+        }
+
+        static ItemForRequestDto toItemForRequestDto(Item item) {
+            return ItemForRequestDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .requestId(item.getItemRequest().getId())
+                    .build();
+        }
+
+        static Item fromDto(ItemDto itemDto, User owner) {
+            return Item.builder()
+                    .id(itemDto.getId())
+                    .name(itemDto.getName())
+                    .description(itemDto.getDescription())
+                    .owner(owner)
+                    .available(itemDto.getAvailable())
+                    .build();
+        }
+
+        //Comment
+        static CommentDto toDto(Comment comment) {
+            return CommentDto.builder()
+                    .id(comment.getId())
+                    .text(comment.getText())
+                    .authorName(comment.getAuthor().getName())
+                    .created(comment.getCreated())
+                    .build();
+        }
+
+        static Comment fromDto(CommentDto commentDto, long itemId) {
+            return Comment.builder()
+                    .item(Item.builder().id(itemId).build())
+                    .text(commentDto.getText())
+                    .build();
+        }
+
+        //Booking
+        static BookingDto toDto(Booking booking) {
+            return BookingDto.builder()
+                    .id(booking.getId())
+                    .start(booking.getStart())
+                    .end(booking.getEnd())
+                    .item(BuilderMapper.toDto(booking.getItem()))
+                    .booker(BuilderMapper.toDto(booking.getBooker()))
+                    .status(booking.getState())
+                    .build();
+        }
+
+        static BookingDtoShort toShortDto(Booking booking) {
+            return BookingDtoShort.builder()
+                    .id(booking.getId())
+                    .bookerId(booking.getBooker().getId())
+                    .build();
+        }
+
+        static Booking fromRequestDto(BookingRequestDto bookingRequestDto, User booker, Item item) {
+            return Booking.builder()
+                    .start((bookingRequestDto.getStart()))
+                    .end(bookingRequestDto.getEnd())
+                    .booker(booker)
+                    .item(item)
+                    .state(BookingStatus.WAITING)
+                    .build();
+        }
+
+        //ItemRequest
+        static ItemRequestDto toDto(ItemRequest itemRequest) {
+            return ItemRequestDto.builder()
+                    .id(itemRequest.getId())
+                    .description(itemRequest.getDescription())
+                    .created(itemRequest.getCreation())
+                    .build();
+        }
+
+        static ItemRequest fromShortDto(User requester, ItemRequestShortDto shortDto, LocalDateTime timestamp) {
+            return ItemRequest.builder()
+                    .description(shortDto.getDescription())
+                    .requester(requester)
+                    .creation(timestamp)
+                    .build();
+        }
+    }
+}